@@ -0,0 +1,174 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2018 The OpenNARS authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.opennars.control;
+
+import org.opennars.main.Nar;
+import org.opennars.main.Parameters;
+import org.opennars.storage.Memory;
+
+/**
+ * Scheduler fitting the work of each cycle into a wall-clock period of CYCLE_DEADLINE_MS
+ * <p>
+ * It measures how long a novel task and a concept firing take, averaged over
+ * the recent cycles, and scales the novel task selections and concept firings
+ * of the next cycle so that they fill the period, keeping the proportion of
+ * NOVEL_TASK_BAG_SELECTIONS to concept firings. At least one of each is done
+ * per cycle, a cycle exceeding the period counts as a missed deadline.
+ */
+public class CycleScheduler {
+
+    /** weight of the latest measurement in the averaged costs */
+    private static final double SMOOTHING = 0.2;
+    /** most the work of a cycle grows by from one cycle to the next */
+    private static final double MAX_GROWTH = 2.0;
+
+    private final Parameters narParameters;
+
+    /** averaged nanoseconds per novel task and per concept firing, negative before the first measurement */
+    private double novelTaskNanos = -1;
+    private double conceptNanos = -1;
+
+    /** work of the next cycle */
+    private int novelTaskQuota;
+    private int conceptQuota;
+
+    /** totals since the start */
+    private final long start = System.nanoTime();
+    private long cycles;
+    private long novelTasks;
+    private long concepts;
+    private long deadlineMisses;
+
+    public CycleScheduler(final Parameters narParameters) {
+        this.narParameters = narParameters;
+        this.novelTaskQuota = narParameters.NOVEL_TASK_BAG_SELECTIONS;
+        this.conceptQuota = Math.max(1, narParameters.CONCEPT_FIRING_BATCH);
+    }
+
+    /**
+     * Run a cycle with the current quotas and adapt them to its duration
+     *
+     * @param memory The memory to run the cycle in
+     * @param nar The reasoner
+     * @return The nanoseconds left until the end of the period, 0 if the deadline was missed
+     */
+    public long cycle(final Memory memory, final Nar nar) {
+        final int novel;
+        final int fired;
+        synchronized (this) {
+            novel = novelTaskQuota;
+            fired = conceptQuota;
+        }
+        final long cycleStart = System.nanoTime();
+        final Memory.NovelTaskWork novelWork = memory.cycle(nar, novel, fired);
+        final long cycleNanos = System.nanoTime() - cycleStart;
+        final long period = periodNanos();
+        record(novelWork.tasks, novelWork.nanos, fired, cycleNanos - novelWork.nanos, cycleNanos > period);
+        return Math.max(0, period - cycleNanos);
+    }
+
+    /**
+     * Take the measurements of a cycle into account
+     *
+     * @param novel Novel tasks processed, the cost per novel task is only measured if there were any
+     * @param novelNanos Nanoseconds spent on them
+     * @param fired Concepts fired
+     * @param firingNanos Nanoseconds spent on them
+     * @param missed Whether the cycle took longer than the period
+     */
+    public synchronized void record(final int novel, final long novelNanos, final int fired, final long firingNanos, final boolean missed) {
+        cycles++;
+        novelTasks += novel;
+        concepts += fired;
+        if (missed) {
+            deadlineMisses++;
+        }
+        if (novel > 0) {
+            novelTaskNanos = average(novelTaskNanos, (double) novelNanos / novel);
+        }
+        if (fired > 0) {
+            conceptNanos = average(conceptNanos, (double) firingNanos / fired);
+        }
+
+        //the work of a cycle at the configured proportion, and how many times of it fit into the period
+        final double baseNovel = Math.max(1, narParameters.NOVEL_TASK_BAG_SELECTIONS);
+        final double baseConcepts = Math.max(1, narParameters.CONCEPT_FIRING_BATCH);
+        final double baseNanos = baseNovel * Math.max(0, novelTaskNanos) + baseConcepts * Math.max(0, conceptNanos);
+        if (baseNanos <= 0) {
+            return;
+        }
+        final double scale = periodNanos() / baseNanos;
+        //without novel tasks to process there is nothing the quota could be grown by
+        final int novelQuota = quota(baseNovel * scale, novelTaskQuota);
+        novelTaskQuota = novel > 0 ? novelQuota : Math.min(novelQuota, novelTaskQuota);
+        conceptQuota = quota(baseConcepts * scale, conceptQuota);
+    }
+
+    private static double average(final double average, final double value) {
+        return average < 0 ? value : average + SMOOTHING * (value - average);
+    }
+
+    private static int quota(final double wanted, final int current) {
+        final double bounded = Math.min(wanted, current * MAX_GROWTH);
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, Math.round(bounded)));
+    }
+
+    private long periodNanos() {
+        return narParameters.CYCLE_DEADLINE_MS * 1000000L;
+    }
+
+    /** @return novel tasks the next cycle selects */
+    public synchronized int getNovelTaskQuota() {
+        return novelTaskQuota;
+    }
+
+    /** @return concepts the next cycle fires */
+    public synchronized int getConceptQuota() {
+        return conceptQuota;
+    }
+
+    /** @return cycles run per second since the start */
+    public synchronized double getCyclesPerSecond() {
+        return cycles / secondsSinceStart();
+    }
+
+    /** @return novel tasks processed per second since the start */
+    public synchronized double getNovelTasksPerSecond() {
+        return novelTasks / secondsSinceStart();
+    }
+
+    /** @return concepts fired per second since the start */
+    public synchronized double getConceptsPerSecond() {
+        return concepts / secondsSinceStart();
+    }
+
+    /** @return cycles which took longer than the period */
+    public synchronized long getDeadlineMisses() {
+        return deadlineMisses;
+    }
+
+    private double secondsSinceStart() {
+        return Math.max(1, System.nanoTime() - start) / 1.0e9;
+    }
+}
@@ -34,7 +34,13 @@ import org.opennars.storage.Memory;
 import org.opennars.main.Debug;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * NAL Reasoner Process.  Includes all reasoning process state.
@@ -56,12 +62,39 @@ public class DerivationContext {
     public Parameters narParameters;
 
     public Timable time;
+
+    /* Random stream of this context, not shared with contexts in other threads */
+    public final Random random;
+
+    /* Tasks derived by this context and their reasons, kept until flushTasks while buffering */
+    private boolean buffering = false;
+    private List<Task> bufferedTasks;
+    private List<String> bufferedReasons;
+
+    /* Context firing a concept of a batch in the calling thread, see fireInBatch */
+    private static final ThreadLocal<DerivationContext> batchFiring = new ThreadLocal<>();
+
+    /* Changes to state shared with the other firings of a batch, kept until applySharedChanges, null if not deferred */
+    private List<Runnable> sharedChanges;
+    /* Stamp serials handed out while firing in a batch: the n-th one is firstSerial + n * serialStride */
+    private long firstSerial;
+    private int serialStride;
+    private long serials;
+    /* Beliefs of the concepts of the batch as they were when the batch was selected, shared by its contexts */
+    private Map<Concept, List<Task>> batchBeliefs;
+    /* Tasks created while deferring, private to the firing and changed in place */
+    private final Set<Task> createdTasks = Collections.newSetFromMap(new IdentityHashMap<>());
     
     public DerivationContext(final Memory mem, final Parameters narParameters, final Timable time) {
+        this(mem, narParameters, time, mem.getRandom());
+    }
+
+    public DerivationContext(final Memory mem, final Parameters narParameters, final Timable time, final Random random) {
         super();
         this.memory = mem;
         this.narParameters = narParameters;
         this.time = time;
+        this.random = random;
     }
    
     public void emit(final Class c, final Object... o) {
@@ -464,9 +497,252 @@ public class DerivationContext {
         if(t.sentence.term==null) {
             return;
         }
+        if (buffering) {
+            bufferedTasks.add(t);
+            bufferedReasons.add(reason);
+            return;
+        }
         memory.addNewTask(t, reason);
     }
+
+    /**
+     * Keep the tasks added from now on in this context until {@link #flushTasks()}, to hand them
+     * to memory in one batch, and in a fixed order when contexts run in parallel
+     *
+     * @return false if the context was buffering already, the one who started it flushes
+     */
+    public boolean bufferTasks() {
+        if (buffering) {
+            return false;
+        }
+        if (bufferedTasks == null) {
+            bufferedTasks = new ArrayList<>();
+            bufferedReasons = new ArrayList<>();
+        }
+        buffering = true;
+        return true;
+    }
+
+    /**
+     * Add the buffered tasks to memory in one batch, in the order they were derived, and stop buffering
+     */
+    public void flushTasks() {
+        if (!buffering) {
+            return;
+        }
+        buffering = false;
+        if (!bufferedTasks.isEmpty()) {
+            memory.addNewTasks(bufferedTasks, bufferedReasons);
+            bufferedTasks.clear();
+            bufferedReasons.clear();
+        }
+    }
     
+    /**
+     * Keep the changes to state shared with other concepts made from now on until {@link #applySharedChanges()},
+     * for a context firing a concept of a batch in parallel with the others; these are the tasks, the budgets and
+     * solutions of tasks, activations of concepts, emotions and removed concepts. The stamp serials this context
+     * hands out are the ones of the given arithmetic sequence, instead of the next ones of memory.
+     * The beliefs of the concepts of the batch are read from the given snapshot, see {@link #getBatchBeliefs}.
+     *
+     * @param firstSerial the first stamp serial of the context
+     * @param serialStride the distance between two serials of the context, the number of contexts of the batch
+     * @param batchBeliefs the beliefs of the concepts of the batch when it was selected, not changed afterwards
+     */
+    public void deferSharedChanges(final long firstSerial, final int serialStride, final Map<Concept, List<Task>> batchBeliefs) {
+        this.sharedChanges = new ArrayList<>();
+        this.firstSerial = firstSerial;
+        this.serialStride = serialStride;
+        this.serials = 0;
+        this.batchBeliefs = batchBeliefs;
+        bufferTasks();
+    }
+
+    /**
+     * The beliefs of a concept fired in the same batch, to read without its monitor, which its firing holds:
+     * locking it while holding the monitor of the own concept would deadlock with a firing doing the reverse.
+     *
+     * @param concept a concept
+     * @return the beliefs of the concept when the batch was selected, null if it is not fired in the batch of this context
+     */
+    public List<Task> getBatchBeliefs(final Concept concept) {
+        return sharedChanges != null && batchBeliefs != null ? batchBeliefs.get(concept) : null;
+    }
+
+    /**
+     * Change state shared with other concepts, now or with {@link #applySharedChanges()} if deferred.
+     * The rules use the named changes below; a task shared with other concepts changed in place
+     * while deferring fails with an IllegalStateException, see {@link #checkTaskChange}.
+     *
+     * @param change the change, it must not depend on the state at the time it is run being the current one
+     */
+    public void changeShared(final Runnable change) {
+        if (sharedChanges != null) {
+            sharedChanges.add(change);
+        } else {
+            change.run();
+        }
+    }
+
+    /**
+     * Set the best solution of a task
+     *
+     * @param task the task, shared with the concepts linking to it
+     * @param solution the solution
+     */
+    public void setBestSolution(final Task task, final Sentence solution) {
+        changeShared(() -> task.setBestSolution(memory, solution, time));
+    }
+
+    /**
+     * Set the priority of a task, it keeps the old one until the change is applied
+     *
+     * @param task the task, shared with the concepts linking to it
+     * @param v the priority
+     */
+    public void setPriority(final Task task, final float v) {
+        changeShared(() -> task.setPriority(v));
+    }
+
+    /**
+     * Increase the priority of a task, it keeps the old one until the change is applied
+     *
+     * @param task the task, shared with the concepts linking to it
+     * @param v the increasing factor
+     */
+    public void incPriority(final Task task, final float v) {
+        changeShared(() -> task.incPriority(v));
+    }
+
+    /**
+     * Decrease the priority and the durability of a task, it keeps the old ones until the change is applied
+     *
+     * @param task the task, shared with the concepts linking to it
+     * @param priority the decreasing factor of the priority
+     * @param durability the decreasing factor of the durability
+     */
+    public void decBudget(final Task task, final float priority, final float durability) {
+        changeShared(() -> {
+            task.decPriority(priority);
+            task.decDurability(durability);
+        });
+    }
+
+    /**
+     * Adjust the satisfaction of memory, see {@link org.opennars.plugin.mental.Emotions#adjustSatisfaction}
+     */
+    public void adjustSatisfaction(final float newValue, final float weight) {
+        changeShared(() -> memory.emotion.adjustSatisfaction(newValue, weight, this));
+    }
+
+    /**
+     * Adjust the busyness of memory, see {@link org.opennars.plugin.mental.Emotions#adjustBusy}
+     */
+    public void adjustBusy(final float newValue, final float weight) {
+        changeShared(() -> memory.emotion.adjustBusy(newValue, weight, this));
+    }
+
+    /**
+     * Remove a concept from memory, see {@link Memory#conceptRemoved}
+     */
+    public void conceptRemoved(final Concept concept) {
+        changeShared(() -> memory.conceptRemoved(concept));
+    }
+
+    /**
+     * Run the deferred changes in the order they were made, and stop deferring
+     */
+    public void applySharedChanges() {
+        final List<Runnable> changes = sharedChanges;
+        sharedChanges = null;
+        batchBeliefs = null;
+        createdTasks.clear();
+        if (changes != null) {
+            for (final Runnable change : changes) {
+                change.run();
+            }
+        }
+    }
+
+    /**
+     * Remember a task created by the firing bound to the calling thread as private to it
+     *
+     * @param task the new task
+     */
+    public static void taskCreated(final Task task) {
+        final DerivationContext context = batchFiring.get();
+        if (context != null && context.sharedChanges != null) {
+            context.createdTasks.add(task);
+        }
+    }
+
+    /**
+     * Fail on a task changed in place by a firing of a batch which didn't create it: the task is shared with
+     * the other firings, which would see the change or not depending on the schedule of the threads
+     *
+     * @param task the task about to change
+     * @throws IllegalStateException if the task is shared, the change has to go through {@link #changeShared}
+     */
+    public static void checkTaskChange(final Task task) {
+        final DerivationContext context = batchFiring.get();
+        if (context != null && context.sharedChanges != null && !context.createdTasks.contains(task)) {
+            throw new IllegalStateException("Shared task changed in place while firing in a batch: " + task);
+        }
+    }
+
+    /**
+     * Fire a concept with this context bound to the calling thread, so that tasks memory gets
+     * and stamp serials it hands out in the meantime are the ones of this context
+     *
+     * @param firing the firing
+     * @return the result of the firing
+     */
+    public <T> T fireInBatch(final Supplier<T> firing) {
+        batchFiring.set(this);
+        try {
+            return firing.get();
+        } finally {
+            batchFiring.remove();
+        }
+    }
+
+    /**
+     * @param memory a memory
+     * @return the context firing a concept of the memory in a batch in the calling thread, null if there is none
+     */
+    public static DerivationContext firingInBatch(final Memory memory) {
+        final DerivationContext context = batchFiring.get();
+        return context != null && context.memory == memory && context.sharedChanges != null ? context : null;
+    }
+
+    /**
+     * Keep a task added to memory while firing in a batch with the derived tasks
+     *
+     * @return false if the context doesn't buffer tasks
+     */
+    public boolean deferTask(final Task t, final String reason) {
+        if (!buffering) {
+            return false;
+        }
+        bufferedTasks.add(t);
+        bufferedReasons.add(reason);
+        return true;
+    }
+
+    /**
+     * @return the next stamp serial of a context deferring its shared changes
+     */
+    public long nextStampSerial() {
+        return firstSerial + serialStride * serials++;
+    }
+
+    /**
+     * @return the number of stamp serials handed out by the context since it defers its shared changes
+     */
+    public long getStampSerials() {
+        return serials;
+    }
+
     /**
      * Activated task called in MatchingRules.trySolution and
      * Concept.processGoal
@@ -27,6 +27,7 @@ import org.opennars.control.concept.ProcessAnticipation;
 import org.opennars.control.concept.ProcessGoal;
 import org.opennars.entity.Concept;
 import org.opennars.entity.Task;
+import org.opennars.entity.TaskLink;
 import org.opennars.entity.TermLink;
 import org.opennars.inference.BudgetFunctions;
 import org.opennars.inference.RuleTables;
@@ -36,6 +37,14 @@ import org.opennars.main.Nar;
 import org.opennars.main.Parameters;
 import org.opennars.storage.Memory;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
 /**
  * Concept reasoning context
  *
@@ -47,28 +56,88 @@ import org.opennars.storage.Memory;
 public class GeneralInferenceControl {
     
     public static void selectConceptForInference(final Memory mem, final Parameters narParameters, final Nar nar) {
-        final Concept currentConcept;
-        synchronized (mem.concepts) { //modify concept bag
-            currentConcept = mem.concepts.takeOut();
-            if (currentConcept==null) {
-                return;
-            }
+        final Concept currentConcept = mem.takeOutConcept();
+        if (currentConcept==null) {
+            return;
         }
 
         final DerivationContext nal = new DerivationContext(mem, narParameters, nar);
+        final float forgetCycles = fireSelectedConcept(nal, currentConcept, nar);
+        if(forgetCycles >= 0) { // put back into bag (bag is the resource)
+            nal.memory.putBackConcept(nal.currentConcept, forgetCycles);
+        }
+    }
+
+    /**
+     * Take a batch of concepts out of the bag and fire them in parallel on the given pool, each with an own
+     * DerivationContext. Each firing only changes its own concept, the changes of state shared with the other
+     * concepts are deferred, see {@link DerivationContext#deferSharedChanges}, so a firing sees the state as it
+     * was before the batch. When the whole batch is done, the deferred changes are applied in the order the
+     * concepts were selected, then the derived tasks are handed to memory and the concepts are put back in
+     * that order, so the results don't depend on the scheduling of the threads.
+     */
+    public static void selectConceptsForInference(final Memory mem, final Parameters narParameters, final Nar nar, final ForkJoinPool pool, final int size) {
+        final List<Concept> concepts = new ArrayList<>(size);
+        final Map<Concept, List<Task>> beliefs = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            final Concept concept = mem.takeOutFiringConcept();
+            if (concept == null) {
+                break;
+            }
+            concepts.add(concept);
+            synchronized (concept) {
+                beliefs.put(concept, new ArrayList<>(concept.beliefs));
+            }
+        }
+        final List<DerivationContext> batch = new ArrayList<>(concepts.size());
+        final List<ForkJoinTask<Float>> firings = new ArrayList<>(concepts.size());
+        final long firstSerial = mem.getStampSerial();
+        for (int i = 0; i < concepts.size(); i++) {
+            final Concept concept = concepts.get(i);
+            //an own random stream for each firing, split off in selection order
+            final DerivationContext nal = new DerivationContext(mem, narParameters, nar, new Random(mem.getRandom().nextLong()));
+            nal.deferSharedChanges(firstSerial + i, concepts.size(), beliefs);
+            batch.add(nal);
+            firings.add(pool.submit(() -> nal.fireInBatch(() -> fireSelectedConcept(nal, concept, nar))));
+        }
+        final float[] forgetCycles = new float[batch.size()];
+        long serials = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            forgetCycles[i] = firings.get(i).join();
+            serials = Math.max(serials, batch.get(i).getStampSerials());
+        }
+        mem.skipStampSerials(serials * batch.size());
+        for (final DerivationContext nal : batch) {
+            nal.applySharedChanges();
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            final DerivationContext nal = batch.get(i);
+            nal.flushTasks();
+            if (forgetCycles[i] >= 0) {
+                mem.putBackConcept(nal.currentConcept, forgetCycles[i]);
+            }
+        }
+    }
+
+    /**
+     * Fire a concept taken out of the bag
+     *
+     * @return the forget cycles to put the concept back with, or -1 if it was forgotten
+     */
+    private static float fireSelectedConcept(final DerivationContext nal, final Concept currentConcept, final Nar nar) {
+        final Parameters narParameters = nal.narParameters;
         boolean putBackConcept = false;
         float forgetCycles = 0.0f;
         synchronized(currentConcept) { //use current concept (current concept is the resource)  
             ProcessAnticipation.maintainDisappointedAnticipations(narParameters, currentConcept, nar);
-            if(currentConcept.taskLinks.size() == 0) { //remove concepts without tasklinks and without termlinks
-                mem.concepts.pickOut(currentConcept.getTerm());
-                mem.conceptRemoved(currentConcept);
-                return;
+            //the concept is out of the bag already
+            if(currentConcept.getTaskLinks().size() == 0) { //remove concepts without tasklinks and without termlinks
+                nal.conceptRemoved(currentConcept);
+                return -1;
             }
-            if(currentConcept.termLinks.size() == 0) {  //remove concepts without tasklinks and without termlinks
-                mem.concepts.pickOut(currentConcept.getTerm());
-                mem.conceptRemoved(currentConcept);
-                return;
+            if(currentConcept.getTermLinks().size() == 0) {  //remove concepts without tasklinks and without termlinks
+                nal.conceptRemoved(currentConcept);
+                return -1;
             }
             nal.setCurrentConcept(currentConcept);
             putBackConcept = fireConcept(nal, 1);
@@ -79,39 +148,39 @@ public class GeneralInferenceControl {
                 }
             }
         }
-        if(putBackConcept) { // put back into bag (bag is the resource)
-            synchronized (nal.memory.concepts) {
-                nal.memory.concepts.putBack(nal.currentConcept, forgetCycles, nal.memory);
-            }
-        }
+        return putBackConcept ? forgetCycles : -1;
     }
 
     // /return true if concept must be put back
     public static boolean fireConcept(final DerivationContext nal, final int numTaskLinks) {
         for (int i = 0; i < numTaskLinks; i++) {
-            if (nal.currentConcept.taskLinks.size() == 0) {
+            if (nal.currentConcept.getTaskLinks().size() == 0) {
                 return false;
             }
-            nal.currentTaskLink = nal.currentConcept.taskLinks.takeOut();                    
+            nal.currentTaskLink = nal.currentConcept.getTaskLinks().takeOut();                    
             if (nal.currentTaskLink == null) {
                 return false;
             }
-            if (nal.currentTaskLink.budget.aboveThreshold()) {
+            if (nal.currentTaskLink.aboveThreshold()) {
                 fireTaskLink(nal, nal.memory.narParameters.TERMLINK_MAX_REASONED);                    
             }
-            nal.currentConcept.taskLinks.putBack(nal.currentTaskLink, nal.memory.cycles(nal.memory.narParameters.TASKLINK_FORGET_DURATIONS), nal.memory);
+            final TaskLink removed = nal.currentConcept.getTaskLinks().putBack(nal.currentTaskLink, nal.memory.cycles(nal.memory.narParameters.TASKLINK_FORGET_DURATIONS), nal.memory);
+            if (removed != null) {
+                removed.release();
+            }
         }
         return true;
     }
     
     protected static void fireTaskLink(final DerivationContext nal, int termLinks) {
+        final boolean flush = nal.bufferTasks(); //conclusions go to memory in one batch at the end
         final Task task = nal.currentTaskLink.getTarget();
         nal.setCurrentTerm(nal.currentConcept.term);
         nal.setCurrentTaskLink(nal.currentTaskLink);
         nal.setCurrentBeliefLink(null);
         nal.setCurrentTask(task); // one of the two places where this variable is set
         if(nal.memory.emotion != null) {
-            nal.memory.emotion.adjustBusy(nal.currentTaskLink.getPriority(),nal.currentTaskLink.getDurability(),nal);
+            nal.adjustBusy(nal.currentTaskLink.getPriority(), nal.currentTaskLink.getDurability());
         }
         if (nal.currentTaskLink.type == TermLink.TRANSFORM) {
             nal.setCurrentBelief(null);
@@ -130,7 +199,10 @@ public class GeneralInferenceControl {
                 termLinks--;
             }
         }
-                
+
+        if (flush) {
+            nal.flushTasks();
+        }
         nal.memory.emit(Events.ConceptFire.class, nal);
         //memory.logic.TASKLINK_FIRE.commit(currentTaskLink.budget.getPriority());
     }
@@ -30,7 +30,7 @@ import org.opennars.io.Symbols;
 import org.opennars.io.events.Events;
 import org.opennars.language.CompoundTerm;
 import org.opennars.operator.Operation;
-import org.opennars.storage.Bag;
+import org.opennars.storage.BagFactory;
 import org.opennars.storage.Memory;
 
 import java.util.LinkedHashSet;
@@ -122,7 +122,7 @@ public class TemporalInferenceControl {
                 final Concept opc = nal.memory.concept(Toperation.getTerm());
                 if(opc != null) {
                     if(opc.seq_before == null) {
-                        opc.seq_before = new Bag<>(nal.narParameters.SEQUENCE_BAG_LEVELS, nal.narParameters.SEQUENCE_BAG_SIZE, nal.narParameters);
+                        opc.seq_before = BagFactory.create(nal.narParameters.SEQUENCE_BAG_TYPE, nal.narParameters.SEQUENCE_BAG_LEVELS, nal.narParameters.SEQUENCE_BAG_SIZE, nal.narParameters);
                     }
                     for(int i = 0; i<nal.narParameters.CONDITION_BAG_ATTEMPTS; i++) {
                         final Task takeout = opc.seq_before.takeOut();
@@ -231,7 +231,7 @@ public class TemporalInferenceControl {
         synchronized(mem.seq_current) {
             if(c != null) {
                 if(c.seq_before == null) {
-                    c.seq_before = new Bag<>(mem.narParameters.SEQUENCE_BAG_LEVELS, mem.narParameters.SEQUENCE_BAG_SIZE, mem.narParameters);
+                    c.seq_before = BagFactory.create(mem.narParameters.SEQUENCE_BAG_TYPE, mem.narParameters.SEQUENCE_BAG_LEVELS, mem.narParameters.SEQUENCE_BAG_SIZE, mem.narParameters);
                 }
                 for(final Task t : mem.seq_current) {
                     if(task.sentence.getOccurenceTime() > t.sentence.getOccurenceTime()) {
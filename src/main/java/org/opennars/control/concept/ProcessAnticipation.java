@@ -91,7 +91,7 @@ public class ProcessAnticipation {
             if(toDelete != null) {
                 c.anticipations.remove(toDelete);
             }
-            c.anticipations.add(toInsert);
+            c.addAnticipation(toInsert);
             final Statement impOrEqu = (Statement) toInsert.negConfirmation.sentence.term;
             final Concept ctarget = nal.memory.concept(impOrEqu.getPredicate());
             if(ctarget != null) {
@@ -124,7 +124,7 @@ public class ProcessAnticipation {
             //at first search beliefs for input tasks:
             boolean gotConfirmed = false;
             if(narParameters.RETROSPECTIVE_ANTICIPATIONS) {
-                for(final TaskLink tl : concept.taskLinks) { //search for input in tasklinks (beliefs alone can not take temporality into account as the eternals will win)
+                for(final TaskLink tl : concept.getTaskLinks()) { //search for input in tasklinks (beliefs alone can not take temporality into account as the eternals will win)
                     final Task t = tl.targetTask;
                     if(t!= null && t.sentence.isJudgment() && /*t.isInput() &&*/ !t.sentence.isEternal() && t.sentence.truth.getExpectation() > concept.memory.narParameters.DEFAULT_CONFIRMATION_EXPECTATION &&
                             CompoundTerm.replaceIntervals(t.sentence.term).equals(CompoundTerm.replaceIntervals(concept.getTerm()))) {
@@ -161,15 +161,13 @@ public class ProcessAnticipation {
                         continue;
                     }
 
-                    synchronized (targetConcept) {
-                        for( final Task iBeliefTask : targetConcept.beliefs ) {
-                            Term iBeliefTerm = iBeliefTask.getTerm();
-
-                            boolean found = iBeliefTerm.equals(term);
-                            if (found) {
-                                truthOfBeliefWithTerm = iBeliefTask.sentence.truth;
-                                break;
-                            }
+                    final DerivationContext batch = DerivationContext.firingInBatch(nar.memory);
+                    final List<Task> batchBeliefs = batch != null ? batch.getBatchBeliefs(targetConcept) : null;
+                    if (batchBeliefs != null) { //fired in the same batch, its firing holds the monitor
+                        truthOfBeliefWithTerm = beliefTruth(batchBeliefs, term);
+                    } else {
+                        synchronized (targetConcept) {
+                            truthOfBeliefWithTerm = beliefTruth(targetConcept.beliefs, term);
                         }
                     }
                 }
@@ -204,6 +202,23 @@ public class ProcessAnticipation {
             concept.anticipations.remove(entry);
         }
     }
+
+    /**
+     * @param beliefs The beliefs of a concept
+     * @param term The term of the belief
+     * @return The truth of the belief with the term, null if there is none
+     */
+    private static TruthValue beliefTruth(final List<Task> beliefs, final Term term) {
+        for( final Task iBeliefTask : beliefs ) {
+            Term iBeliefTerm = iBeliefTask.getTerm();
+
+            boolean found = iBeliefTerm.equals(term);
+            if (found) {
+                return iBeliefTask.sentence.truth;
+            }
+        }
+        return null;
+    }
     
     /**
      * Whether a processed judgement task satisfies the anticipations within concept
@@ -238,7 +253,7 @@ public class ProcessAnticipation {
      */
     public static void firePredictions(final Task judgementTask, final Concept concept, final DerivationContext nal, Timable time, TaskLink tasklink) {
         if(!judgementTask.sentence.isEternal() && judgementTask.isInput() && judgementTask.sentence.isJudgment()) {
-            for(TermLink tl : concept.termLinks) {
+            for(TermLink tl : concept.getTermLinks()) {
                 Term term = tl.getTarget();
                 Concept tc = nal.memory.concept(term);
                 if(tc != null && !tc.beliefs.isEmpty() && term instanceof Implication) {
@@ -287,7 +287,7 @@ public class ProcessGoal {
                 boolean useful_component = false;
                 for(Task precon : get_concept.general_executable_preconditions) {
                     //check whether the conclusion matches
-                    if(Variables.findSubstitute(nal.memory.randomNumber, Symbols.VAR_INDEPENDENT, ((Implication)precon.sentence.term).getPredicate(), projectedGoal.term, new LinkedHashMap<>(), new LinkedHashMap<>())) {
+                    if(Variables.findSubstitute(nal.random, Symbols.VAR_INDEPENDENT, ((Implication)precon.sentence.term).getPredicate(), projectedGoal.term, new LinkedHashMap<>(), new LinkedHashMap<>())) {
                         for(Task prec : get_concept.general_executable_preconditions) {
                             generalPreconditions.add(prec);
                             useful_component = true;
@@ -353,7 +353,7 @@ public class ProcessGoal {
                 prec_intervals.add((float) l);
             }
             Map<Term,Term> subsconc = new LinkedHashMap<>();
-            boolean conclusionMatches = Variables.findSubstitute(nal.memory.randomNumber, Symbols.VAR_INDEPENDENT,
+            boolean conclusionMatches = Variables.findSubstitute(nal.random, Symbols.VAR_INDEPENDENT,
                             CompoundTerm.replaceIntervals(((Implication) t.getTerm()).getPredicate()),
                             CompoundTerm.replaceIntervals(projectedGoal.getTerm()), subsconc, new LinkedHashMap<>());
             //ok we can look now how much it is fullfilled
@@ -363,7 +363,7 @@ public class ProcessGoal {
                 for(final Task p : concept.memory.seq_current) {
                     if(p.sentence.isJudgment() && !p.sentence.isEternal() && p.sentence.getOccurenceTime() > newesttime && p.sentence.getOccurenceTime() <= nal.time.time()) {
                         Map<Term,Term> subs = new LinkedHashMap<>(subsconc);
-                        boolean preconditionMatches = Variables.findSubstitute(nal.memory.randomNumber, Symbols.VAR_INDEPENDENT,
+                        boolean preconditionMatches = Variables.findSubstitute(nal.random, Symbols.VAR_INDEPENDENT,
                             CompoundTerm.replaceIntervals(precondition),
                             CompoundTerm.replaceIntervals(p.sentence.term), subs, new LinkedHashMap<>());
                         if(preconditionMatches && conclusionMatches){
@@ -442,7 +442,7 @@ public class ProcessGoal {
             final Task t = new Task(createdSentence,
                 new BudgetValue(1.0f,1.0f,1.0f, nal.narParameters),
                 Task.EnumType.DERIVED);
-            //System.out.println("used " +t.getTerm().toString() + String.valueOf(nal.memory.randomNumber.nextInt()));
+            //System.out.println("used " +t.getTerm().toString() + String.valueOf(nal.random.nextInt()));
             if(!task.sentence.stamp.evidenceIsCyclic()) {
                 if(!executeOperation(nal, t)) { //this task is just used as dummy
                     concept.memory.emit(Events.UnexecutableGoal.class, task, concept, nal);
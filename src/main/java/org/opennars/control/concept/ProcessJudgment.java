@@ -201,6 +201,7 @@ public class ProcessJudgment {
             }
             // we do not add the target, instead the strongest belief in the target concept
             synchronized(target_concept) {       
+                target_concept.hydrateTables();
                 List<Task> table = strongest_target.get().sentence.term.hasVar() ?  target_concept.general_executable_preconditions : 
                                                                                     target_concept.executable_preconditions;
                 //at first we have to remove the last one with same content from table
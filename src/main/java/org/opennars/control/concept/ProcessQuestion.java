@@ -98,9 +98,9 @@ public class ProcessQuestion {
     public static void ProcessWhatQuestion(final Concept concept, final Task ques, final DerivationContext nal) {
         if(!(ques.sentence.isJudgment()) && ques.getTerm().hasVarQuery()) { //ok query var, search
             boolean newAnswer = false;
-            for(final TaskLink t : concept.taskLinks) {
+            for(final TaskLink t : concept.getTaskLinks()) {
                 final Term[] u = new Term[] { CompoundTerm.replaceIntervals(ques.getTerm()), CompoundTerm.replaceIntervals(t.getTerm()) };
-                if(!t.getTerm().hasVarQuery() && Variables.unify(nal.memory.randomNumber, Symbols.VAR_QUERY, u)) {
+                if(!t.getTerm().hasVarQuery() && Variables.unify(nal.random, Symbols.VAR_QUERY, u)) {
                     final Concept c = nal.memory.concept(t.getTerm());
                     if(c == null) {
                         continue; //target concept is already gone
@@ -132,14 +132,14 @@ public class ProcessQuestion {
     // called only in GeneralInferenceControl.insertTaskLink on concept selection
     public static void ProcessWhatQuestionAnswer(final Concept concept, final Task t, final DerivationContext nal) {
         if(!t.sentence.term.hasVarQuery() && t.sentence.isJudgment() || t.sentence.isGoal()) { //ok query var, search
-            for(final TaskLink quess: concept.taskLinks) {
+            for(final TaskLink quess: concept.getTaskLinks()) {
                 final Task ques = quess.getTarget();
                 if(((ques.sentence.isQuestion() && t.sentence.isJudgment()) ||
                     (ques.sentence.isGoal()     && t.sentence.isJudgment()) ||
                     (ques.sentence.isQuest()    && t.sentence.isGoal())) && ques.getTerm().hasVarQuery()) {
                     boolean newAnswer = false;
                     final Term[] u = new Term[] { CompoundTerm.replaceIntervals(ques.getTerm()), CompoundTerm.replaceIntervals(t.getTerm()) };
-                    if(ques.sentence.term.hasVarQuery() && !t.getTerm().hasVarQuery() && Variables.unify(nal.memory.randomNumber, Symbols.VAR_QUERY, u)) {
+                    if(ques.sentence.term.hasVarQuery() && !t.getTerm().hasVarQuery() && Variables.unify(nal.random, Symbols.VAR_QUERY, u)) {
                         final Concept c = nal.memory.concept(t.getTerm());
                         if(c == null) {
                             continue; //target doesn't exist anymore
@@ -0,0 +1,195 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2018 The OpenNARS authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.opennars.entity;
+
+import org.opennars.inference.BudgetFunctions;
+import org.opennars.language.Term;
+import org.opennars.storage.Memory;
+
+/**
+ * A TermLink keeping its budget in a slot of the {@link BudgetArrays} store of its concept
+ * <p>
+ * Only a slot index is kept instead of a BudgetValue object. The slot is
+ * released once the link left its bag for good: when it is merged into a
+ * duplicate, or by the owner of the bag through {@link #release()}. A released
+ * link keeps working on a detached copy of its budget.
+ * <p>
+ * {@link #getBudget()} returns a copy while the slot is held, changes have
+ * to go through the setters of the Item.
+ */
+public class ArrayTermLink extends TermLink {
+
+    /** store holding the budget, null once released */
+    private BudgetArrays budgets;
+    /** slot in the store */
+    private int slot;
+    /** budget copied out of the store on release */
+    private BudgetValue detached;
+
+    /**
+     * @param t Target Term
+     * @param template TermLink template previously prepared
+     * @param v The initial budget
+     * @param budgets The budget store of the concept
+     */
+    public ArrayTermLink(final Term t, final TermLink template, final BudgetValue v, final BudgetArrays budgets) {
+        super(t, template, null);
+        this.budgets = budgets;
+        this.slot = budgets.allocate(v);
+    }
+
+    /**
+     * Return the slot of the budget to the store, the budget is copied into the link
+     */
+    @Override
+    public void release() {
+        if (budgets != null) {
+            detached = budgets.get(slot);
+            budgets.release(slot);
+            budgets = null;
+            slot = -1;
+        }
+    }
+
+    @Override
+    public float getPriority() {
+        return budgets == null ? detached.getPriority() : budgets.getPriority(slot);
+    }
+
+    @Override
+    public void setPriority(final float v) {
+        if (budgets == null) {
+            detached.setPriority(v);
+        } else {
+            budgets.setPriority(slot, v);
+        }
+    }
+
+    @Override
+    public void incPriority(final float v) {
+        if (budgets == null) {
+            detached.incPriority(v);
+        } else {
+            budgets.incPriority(slot, v);
+        }
+    }
+
+    @Override
+    public void decPriority(final float v) {
+        if (budgets == null) {
+            detached.decPriority(v);
+        } else {
+            budgets.decPriority(slot, v);
+        }
+    }
+
+    @Override
+    public float getDurability() {
+        return budgets == null ? detached.getDurability() : budgets.getDurability(slot);
+    }
+
+    @Override
+    public void setDurability(final float v) {
+        if (budgets == null) {
+            detached.setDurability(v);
+        } else {
+            budgets.setDurability(slot, v);
+        }
+    }
+
+    @Override
+    public void incDurability(final float v) {
+        if (budgets == null) {
+            detached.incDurability(v);
+        } else {
+            budgets.incDurability(slot, v);
+        }
+    }
+
+    @Override
+    public void decDurability(final float v) {
+        if (budgets == null) {
+            detached.decDurability(v);
+        } else {
+            budgets.decDurability(slot, v);
+        }
+    }
+
+    @Override
+    public float getQuality() {
+        return budgets == null ? detached.getQuality() : budgets.getQuality(slot);
+    }
+
+    @Override
+    public void setQuality(final float v) {
+        if (budgets == null) {
+            detached.setQuality(v);
+        } else {
+            budgets.setQuality(slot, v);
+        }
+    }
+
+    @Override
+    public boolean aboveThreshold() {
+        return budgets == null ? detached.aboveThreshold() : budgets.aboveThreshold(slot);
+    }
+
+    /**
+     * Merge the budget of a duplicate, whose slot is released since the bag drops it
+     */
+    @Override
+    public Item merge(final Item that) {
+        if (budgets == null) {
+            detached.merge(that.getBudget());
+        } else {
+            budgets.merge(slot, that.getBudget());
+        }
+        if (that != this) {
+            that.release();
+        }
+        return this;
+    }
+
+    @Override
+    protected void decay(final float forgetCycles, final Memory m) {
+        if (budgets == null) {
+            BudgetFunctions.forget(detached, forgetCycles, m);
+        } else {
+            budgets.forget(slot, forgetCycles, m);
+        }
+    }
+
+    @Override
+    protected long getLastForgetTime() {
+        return budgets == null ? detached.getLastForgetTime() : budgets.getLastForgetTime(slot);
+    }
+
+    /**
+     * @return A copy of the budget while it is kept in the store, changing it has no effect on the link
+     */
+    @Override
+    public BudgetValue getBudget() {
+        return budgets == null ? detached : budgets.get(slot);
+    }
+}
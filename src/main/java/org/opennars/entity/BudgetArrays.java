@@ -0,0 +1,248 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2018 The OpenNARS authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.opennars.entity;
+
+import org.opennars.inference.BudgetFunctions;
+import org.opennars.main.Parameters;
+import org.opennars.storage.Memory;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import static org.opennars.inference.UtilityFunctions.and;
+import static org.opennars.inference.UtilityFunctions.aveGeo;
+import static org.opennars.inference.UtilityFunctions.or;
+
+/**
+ * Budgets of the links of one concept, stored as parallel primitive arrays
+ * <p>
+ * A link backed by this store keeps only its slot index instead of its own
+ * BudgetValue object. The mutators mirror the ones of BudgetValue.
+ * <p>
+ * The store is not synchronized: slots are allocated, released and changed
+ * only holding the monitor of the concept owning the store, also by threads
+ * linking other concepts to it.
+ */
+public class BudgetArrays implements Serializable {
+
+    private float[] priority;
+    private float[] durability;
+    private float[] quality;
+    private long[] lastForgetTime;
+    /** released slots, reused before the arrays grow */
+    private int[] free;
+    private int freeCount;
+    /** slots handed out so far, released ones included */
+    private int used;
+
+    private final Parameters narParameters;
+
+    public BudgetArrays(final int initialCapacity, final Parameters narParameters) {
+        final int capacity = Math.max(1, initialCapacity);
+        this.narParameters = narParameters;
+        priority = new float[capacity];
+        durability = new float[capacity];
+        quality = new float[capacity];
+        lastForgetTime = new long[capacity];
+        free = new int[capacity];
+    }
+
+    /**
+     * Allocate a slot initialized from a budget, the same way as a clone of it
+     * @param v The initial budget
+     * @return The slot index
+     */
+    public int allocate(final BudgetValue v) {
+        final int slot;
+        if (freeCount > 0) {
+            slot = free[--freeCount];
+        } else {
+            if (used == priority.length) {
+                grow();
+            }
+            slot = used++;
+        }
+        priority[slot] = Math.min(v.getPriority(), 1.0f);
+        setDurability(slot, v.getDurability());
+        quality[slot] = v.getQuality();
+        lastForgetTime[slot] = -1;
+        return slot;
+    }
+
+    /**
+     * Return a slot which is not referenced anymore
+     * @param slot The slot index
+     */
+    public void release(final int slot) {
+        free[freeCount++] = slot;
+    }
+
+    /**
+     * @return The number of allocated slots
+     */
+    public int size() {
+        return used - freeCount;
+    }
+
+    /**
+     * Give the memory of the arrays back when no slot is allocated
+     */
+    public void trim() {
+        if (size() == 0 && priority.length > 1) {
+            priority = new float[1];
+            durability = new float[1];
+            quality = new float[1];
+            lastForgetTime = new long[1];
+            free = new int[1];
+            freeCount = 0;
+            used = 0;
+        }
+    }
+
+    private void grow() {
+        final int capacity = priority.length * 2;
+        priority = Arrays.copyOf(priority, capacity);
+        durability = Arrays.copyOf(durability, capacity);
+        quality = Arrays.copyOf(quality, capacity);
+        lastForgetTime = Arrays.copyOf(lastForgetTime, capacity);
+        free = Arrays.copyOf(free, capacity);
+    }
+
+    /**
+     * Copy a slot into a detached BudgetValue, for the budget functions
+     * @param slot The slot index
+     * @return A new BudgetValue with the content of the slot
+     */
+    public BudgetValue get(final int slot) {
+        final BudgetValue v = new BudgetValue(priority[slot], durability[slot], quality[slot], narParameters);
+        v.setLastForgetTime(lastForgetTime[slot]);
+        return v;
+    }
+
+    /**
+     * Write a BudgetValue back into a slot
+     * @param slot The slot index
+     * @param v The budget to copy
+     */
+    public void set(final int slot, final BudgetValue v) {
+        priority[slot] = v.getPriority();
+        durability[slot] = v.getDurability();
+        quality[slot] = v.getQuality();
+        lastForgetTime[slot] = v.getLastForgetTime();
+    }
+
+    /**
+     * Merge a budget into a slot, like {@link BudgetFunctions#merge(BudgetValue, BudgetValue)}
+     * @param slot The slot index
+     * @param that The budget to merge
+     */
+    public void merge(final int slot, final BudgetValue that) {
+        setPriority(slot, Math.max(priority[slot], that.getPriority()));
+        setDurability(slot, Math.max(durability[slot], that.getDurability()));
+        quality[slot] = Math.max(quality[slot], that.getQuality());
+    }
+
+    /**
+     * Decrease the priority of a slot, like {@link BudgetFunctions#forget(BudgetValue, float, Memory)}
+     * @param slot The slot index
+     * @param forgetCycles The forgetting rate
+     * @param m The memory the bag belongs to
+     */
+    public void forget(final int slot, final float forgetCycles, final Memory m) {
+        final float relativeThreshold = m.narParameters.FORGET_QUALITY_RELATIVE;
+        if (m.narParameters.LAZY_FORGETTING) {
+            final long now = m.getCycleCount();
+            final long last = lastForgetTime[slot];
+            lastForgetTime[slot] = now;
+            if (last == -1 || now - last <= 0) {
+                return;
+            }
+            priority[slot] = BudgetFunctions.forgottenPriority(priority[slot], durability[slot], quality[slot], forgetCycles, relativeThreshold, now - last);
+        } else {
+            priority[slot] = BudgetFunctions.forgottenPriority(priority[slot], durability[slot], quality[slot], forgetCycles, relativeThreshold);
+        }
+    }
+
+    public long getLastForgetTime(final int slot) {
+        return lastForgetTime[slot];
+    }
+
+    public float getPriority(final int slot) {
+        return priority[slot];
+    }
+
+    public void setPriority(final int slot, final float v) {
+        if (v > 1.0f) {
+            throw new IllegalStateException("Priority > 1.0: " + v);
+        }
+        priority[slot] = v;
+    }
+
+    public void incPriority(final int slot, final float v) {
+        setPriority(slot, (float) Math.min(1.0, or(priority[slot], v)));
+    }
+
+    public void decPriority(final int slot, final float v) {
+        setPriority(slot, (float) and(priority[slot], v));
+    }
+
+    public float getDurability(final int slot) {
+        return durability[slot];
+    }
+
+    public void setDurability(final int slot, float d) {
+        if (d >= 1.0f) {
+            d = 1.0f - narParameters.TRUTH_EPSILON;
+        }
+        durability[slot] = d;
+    }
+
+    public void incDurability(final int slot, final float v) {
+        float durability2 = or(durability[slot], v);
+        if (durability2 >= 1.0f) {
+            durability2 = 1.0f - narParameters.TRUTH_EPSILON;
+        }
+        durability[slot] = durability2;
+    }
+
+    public void decDurability(final int slot, final float v) {
+        durability[slot] = (float) and(durability[slot], v);
+    }
+
+    public float getQuality(final int slot) {
+        return quality[slot];
+    }
+
+    public void setQuality(final int slot, final float v) {
+        quality[slot] = v;
+    }
+
+    /**
+     * @param slot The slot index
+     * @return Whether the budget in the slot should get any processing at all
+     */
+    public boolean aboveThreshold(final int slot) {
+        return aveGeo(priority[slot], durability[slot], quality[slot]) >= narParameters.BUDGET_THRESHOLD;
+    }
+}
@@ -33,12 +33,14 @@ import org.opennars.language.Term;
 import org.opennars.main.Shell;
 import org.opennars.main.Parameters;
 import org.opennars.storage.Bag;
+import org.opennars.storage.BagFactory;
 import org.opennars.storage.Memory;
 
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import org.opennars.control.concept.ProcessQuestion;
 
 import static org.opennars.inference.BudgetFunctions.distributeAmongLinks;
@@ -66,47 +68,74 @@ public class Concept extends Item<Term> implements Serializable {
     public Bag<Task<Term>,Sentence<Term>> seq_before;
 
     /**
-     * Task links for indirect processing
+     * Task links for indirect processing, null while the concept is cold, see {@link #getTaskLinks()}
      */
-    public final Bag<TaskLink,Task> taskLinks;
+    private Bag<TaskLink,Task> taskLinks;
 
     /**
-     * Term links between the term and its components and compounds; beliefs
+     * Term links between the term and its components and compounds; beliefs, null while the concept is cold
      */
-    public final Bag<TermLink,TermLink> termLinks;
+    private Bag<TermLink,TermLink> termLinks;
+
+    /** Links of a cold concept in the order of its bags, see {@link #dehydrate()} */
+    private TaskLink[] coldTaskLinks;
+    private TermLink[] coldTermLinks;
+
+    /** Average TermLink priority when the concept went cold, keeps its quality while the bags are gone */
+    private float coldTermLinkPriority;
+
+    /** Whether the bags were rebuilt from the cold form, see {@link #cool(float)} */
+    private boolean rewarmed;
+
+    /** Lists created with the first element, see getRecentIntervals and addAnticipation */
+    private static final AtomicReferenceFieldUpdater<Concept, List> RECENT_INTERVALS =
+            AtomicReferenceFieldUpdater.newUpdater(Concept.class, List.class, "recent_intervals");
+    private static final AtomicReferenceFieldUpdater<Concept, List> ANTICIPATIONS =
+            AtomicReferenceFieldUpdater.newUpdater(Concept.class, List.class, "anticipations");
+
+    /** Slots a link budget store starts with, it grows with the links */
+    private static final int LINK_BUDGETS_INITIAL_CAPACITY = 8;
+
+    /** Budgets of the TaskLinks and TermLinks in the bags above, null unless LINK_BUDGET_ARRAYS */
+    public final BudgetArrays taskLinkBudgets;
+    public final BudgetArrays termLinkBudgets;
 
     /**
      * Link templates of TermLink, only in concepts with CompoundTerm Templates
-     * are used to improve the efficiency of TermLink building
+     * are used to improve the efficiency of TermLink building,
+     * shared with the other concepts of the term, see {@link Memory#getTermLinkTemplates}
      */
-    public final List<TermLink> termLinkTemplates;
+    private List<TermLink> termLinkTemplates;
 
     /**
      * Pending Question directly asked about the term
      *
      * Note: since this is iterated frequently, an array should be used. To
      * avoid iterator allocation, use .get(n) in a for-loop
+     *
+     * The tables below are the shared empty list while the concept is cold and they are empty,
+     * changing them needs {@link #hydrateTables()} first
      */
-    public final List<Task> questions;
+    public List<Task> questions;
 
     
     /**
      * Pending Quests to be answered by new desire values
      */
-    public final List<Task> quests;
+    public List<Task> quests;
 
     /**
      * Judgments directly made about the term Use List because of access
      * and insertion in the middle
      */
-    public final List<Task> beliefs;
+    public List<Task> beliefs;
     public List<Task> executable_preconditions;
     public List<Task> general_executable_preconditions;
 
     /**
      * Desire values on the term, similar to the above one
      */
-    public final List<Task> desires;
+    public List<Task> desires;
 
     /**
      * Reference to the memory to which the Concept belongs
@@ -117,7 +146,8 @@ public class Concept extends Item<Term> implements Serializable {
     //use to create averaging stats of occurring intervals
     //so that revision can decide whether to use the new or old term
     //based on which intervals are closer to the average
-    public final List<Float> recent_intervals = new ArrayList<>();
+    //the shared empty list until the first one, see getRecentIntervals
+    private volatile List<Float> recent_intervals = Collections.emptyList();
     
     public boolean observable = false; //whether it received a "native" input task
     public boolean allowBabbling = true; //for operations, becomes false if sufficiently
@@ -142,15 +172,193 @@ public class Concept extends Item<Term> implements Serializable {
         this.quests = new ArrayList<>();
         this.desires = new ArrayList<>();
 
-        this.taskLinks = new Bag<>(memory.narParameters.TASK_LINK_BAG_LEVELS, memory.narParameters.TASK_LINK_BAG_SIZE, memory.narParameters);
-        this.termLinks = new Bag<>(memory.narParameters.TERM_LINK_BAG_LEVELS, memory.narParameters.TERM_LINK_BAG_SIZE, memory.narParameters);
-                
-        if (tm instanceof CompoundTerm) {
-            this.termLinkTemplates = ((CompoundTerm) tm).prepareComponentLinks();
+        createLinkBags();
+        if (memory.narParameters.LINK_BUDGET_ARRAYS) {
+            this.taskLinkBudgets = new BudgetArrays(LINK_BUDGETS_INITIAL_CAPACITY, memory.narParameters);
+            this.termLinkBudgets = new BudgetArrays(LINK_BUDGETS_INITIAL_CAPACITY, memory.narParameters);
         } else {
-            this.termLinkTemplates = null;
+            this.taskLinkBudgets = null;
+            this.termLinkBudgets = null;
+        }
+
+    }
+
+    private void createLinkBags() {
+        this.taskLinks = BagFactory.create(memory.narParameters.TASK_LINK_BAG_TYPE, memory.narParameters.TASK_LINK_BAG_LEVELS, memory.narParameters.TASK_LINK_BAG_SIZE, memory.narParameters);
+        this.termLinks = BagFactory.create(memory.narParameters.TERM_LINK_BAG_TYPE, memory.narParameters.TERM_LINK_BAG_LEVELS, memory.narParameters.TERM_LINK_BAG_SIZE, memory.narParameters);
+    }
+
+    /**
+     * Task links for indirect processing, rebuilds the bags of a cold concept
+     */
+    public Bag<TaskLink,Task> getTaskLinks() {
+        if (taskLinks == null) {
+            hydrate();
+        }
+        return taskLinks;
+    }
+
+    /**
+     * Term links between the term and its components and compounds, rebuilds the bags of a cold concept
+     */
+    public Bag<TermLink,TermLink> getTermLinks() {
+        if (termLinks == null) {
+            hydrate();
+        }
+        return termLinks;
+    }
+
+    /**
+     * @return whether the concept is in its compact cold form, see {@link #dehydrate()}
+     */
+    public boolean isCold() {
+        return taskLinks == null;
+    }
+
+    /**
+     * Dehydrate the concept when its priority is below the cold priority, or below half of it once
+     * its bags were rebuilt from the cold form, so a concept around the cold priority isn't
+     * dehydrated and rebuilt again whenever it fires
+     *
+     * @param coldPriority The priority below which concepts go cold
+     */
+    public synchronized void cool(final float coldPriority) {
+        if (getPriority() < (rewarmed ? coldPriority / 2 : coldPriority)) {
+            dehydrate();
+        }
+    }
+
+    /**
+     * Drop the link bags and the TermLink templates of a concept which isn't going to be selected soon,
+     * keeping its links in plain arrays in the order of the bags, and only the top COLD_CONCEPT_BELIEFS
+     * beliefs. Empty tables are replaced by the shared empty list, the others and the link budget
+     * stores are trimmed.
+     * The bags are rebuilt by the next access to them, the selection state inside them starts over,
+     * the tables by {@link #hydrateTables()}.
+     */
+    public synchronized void dehydrate() {
+        if (taskLinks == null) {
+            return;
+        }
+        coldTermLinkPriority = termLinks.getAveragePriority();
+        final List<TaskLink> taskLinkList = taskLinks.snapshot();
+        final List<TermLink> termLinkList = termLinks.snapshot();
+        coldTaskLinks = taskLinkList.isEmpty() ? null : taskLinkList.toArray(new TaskLink[0]);
+        coldTermLinks = termLinkList.isEmpty() ? null : termLinkList.toArray(new TermLink[0]);
+        taskLinks = null;
+        termLinks = null;
+        termLinkTemplates = null;
+        rewarmed = false;
+        if (taskLinkBudgets != null) {
+            taskLinkBudgets.trim();
+            termLinkBudgets.trim();
+        }
+        final int keptBeliefs = Math.max(0, memory.narParameters.COLD_CONCEPT_BELIEFS);
+        while (beliefs.size() > keptBeliefs) {
+            final Task dropped = beliefs.remove(beliefs.size() - 1);  // the lowest ranked one
+            memory.event.emit(ConceptBeliefRemove.class, this, dropped.sentence, null);
+        }
+        questions = compact(questions);
+        quests = compact(quests);
+        beliefs = compact(beliefs);
+        desires = compact(desires);
+        executable_preconditions = compact(executable_preconditions);
+        general_executable_preconditions = compact(general_executable_preconditions);
+        trim(anticipations);
+        trim(recent_intervals);
+    }
+
+    /**
+     * Replace the tables a cold concept dropped by new ones, called before changing them
+     */
+    public synchronized void hydrateTables() {
+        questions = expand(questions);
+        quests = expand(quests);
+        beliefs = expand(beliefs);
+        desires = expand(desires);
+        executable_preconditions = expand(executable_preconditions);
+        general_executable_preconditions = expand(general_executable_preconditions);
+    }
+
+    /**
+     * Rebuild the link bags of a cold concept, links which don't fit into bags shrunk in the meantime are forgotten
+     */
+    public synchronized void hydrate() {
+        if (taskLinks != null) {
+            return;
+        }
+        final TaskLink[] taskLinkArray = coldTaskLinks;
+        final TermLink[] termLinkArray = coldTermLinks;
+        coldTaskLinks = null;
+        coldTermLinks = null;
+        rewarmed = true;
+        hydrateTables();
+        createLinkBags();
+        if (taskLinkArray != null) {
+            for (final TaskLink taskLink : taskLinkArray) {
+                final TaskLink removed = taskLinks.putIn(taskLink);
+                if (removed != null) {
+                    memory.emit(TaskLinkRemove.class, removed, this);
+                    removed.release();
+                }
+            }
+        }
+        if (termLinkArray != null) {
+            for (final TermLink termLink : termLinkArray) {
+                final TermLink removed = termLinks.putIn(termLink);
+                if (removed != null) {
+                    memory.emit(TermLinkRemove.class, removed, this);
+                    removed.release();
+                }
+            }
+        }
+    }
+
+    private static void trim(final List<?> table) {
+        if (table instanceof ArrayList) {
+            synchronized (table) {
+                ((ArrayList<?>) table).trimToSize();
+            }
+        }
+    }
+
+    private static List<Task> compact(final List<Task> table) {
+        if (table.isEmpty()) {
+            return Collections.emptyList();
         }
+        trim(table);
+        return table;
+    }
 
+    private static List<Task> expand(final List<Task> table) {
+        return table == Collections.<Task>emptyList() ? new ArrayList<>() : table;
+    }
+
+    /**
+     * Intervals of the recent revisions, created with the first one; changes synchronize on the list
+     *
+     * @param create Whether to replace the shared empty list by a new one
+     * @return the intervals
+     */
+    public List<Float> getRecentIntervals(final boolean create) {
+        List<Float> intervals = recent_intervals;
+        while (create && intervals == Collections.<Float>emptyList()) {
+            RECENT_INTERVALS.compareAndSet(this, intervals, new ArrayList<Float>());
+            intervals = recent_intervals;
+        }
+        return intervals;
+    }
+
+    /**
+     * Add an anticipation, creating the list with the first one
+     */
+    public void addAnticipation(final AnticipationEntry entry) {
+        List<AnticipationEntry> entries = anticipations;
+        while (entries == Collections.<AnticipationEntry>emptyList()) {
+            ANTICIPATIONS.compareAndSet(this, entries, new ArrayList<AnticipationEntry>());
+            entries = anticipations;
+        }
+        entries.add(entry);
     }
 
     @Override public boolean equals(final Object obj) {
@@ -187,6 +395,35 @@ public class Concept extends Item<Term> implements Serializable {
         }
     }
     
+    /**
+     * Build a TaskLink for this concept, keeping its budget in the store of the concept if there is one
+     *
+     * @param task The target Task
+     * @param template The TermLink template, null for the SELF link
+     * @param budget The initial budget
+     * @return The new link, to be inserted holding the monitor of this concept
+     */
+    private TaskLink newTaskLink(final Task task, final TermLink template, final BudgetValue budget) {
+        final int recordLength = memory.narParameters.TERM_LINK_RECORD_LENGTH;
+        return taskLinkBudgets == null
+            ? new TaskLink(task, template, budget, recordLength)
+            : new ArrayTaskLink(task, template, budget, recordLength, taskLinkBudgets);
+    }
+
+    /**
+     * Build a TermLink for this concept, keeping its budget in the store of the concept if there is one
+     *
+     * @param target The target Term
+     * @param template The TermLink template
+     * @param budget The initial budget
+     * @return The new link, to be inserted holding the monitor of this concept
+     */
+    private TermLink newTermLink(final Term target, final TermLink template, final BudgetValue budget) {
+        return termLinkBudgets == null
+            ? new TermLink(target, template, budget)
+            : new ArrayTermLink(target, template, budget, termLinkBudgets);
+    }
+
     /**
      * Link to a new task from all relevant concepts for continued processing in
      * the near future for unspecified time.
@@ -199,20 +436,21 @@ public class Concept extends Item<Term> implements Serializable {
     public TaskLink linkToTask(final Task task, final DerivationContext content) {
         final BudgetValue taskBudget = task.budget;
 
-        TaskLink retLink = new TaskLink(task, null, taskBudget, content.narParameters.TERM_LINK_RECORD_LENGTH);
+        TaskLink retLink = newTaskLink(task, null, taskBudget);
         insertTaskLink(retLink, content);  // link type: SELF
 
         if (!(term instanceof CompoundTerm)) {
             return retLink;
         }
-        if (termLinkTemplates.isEmpty()) {
+        final List<TermLink> templates = getTermLinkTemplates();
+        if (templates.isEmpty()) {
             return retLink;
         }
                 
-        final BudgetValue subBudget = distributeAmongLinks(taskBudget, termLinkTemplates.size(), content.narParameters);
+        final BudgetValue subBudget = distributeAmongLinks(taskBudget, templates.size(), content.narParameters);
         if (subBudget.aboveThreshold()) {
 
-            for (final TermLink termLink : termLinkTemplates) {
+            for (final TermLink termLink : templates) {
                 if (termLink.type == TermLink.TEMPORAL)
                     continue;
                 final Term componentTerm = termLink.target;
@@ -220,9 +458,8 @@ public class Concept extends Item<Term> implements Serializable {
                 final Concept componentConcept = memory.conceptualize(subBudget, componentTerm);
 
                 if (componentConcept != null) {
-                    synchronized(componentConcept) {
-                        componentConcept.insertTaskLink(new TaskLink(task, termLink, subBudget, content.narParameters.TERM_LINK_RECORD_LENGTH), content
-                        );
+                    synchronized(componentConcept) { //the link is allocated in the BudgetArrays of the component
+                        componentConcept.insertTaskLink(componentConcept.newTaskLink(task, termLink, subBudget), content);
                     }
                 }
             }
@@ -312,7 +549,8 @@ public class Concept extends Item<Term> implements Serializable {
             this.negConfirm_abort_maxtime = negConfirm_abort_maxtime;
         }
     }
-    public List<AnticipationEntry> anticipations = new ArrayList<>();
+    //the shared empty list until the first one, added with addAnticipation
+    public volatile List<AnticipationEntry> anticipations = Collections.emptyList();
     
     
     /* ---------- insert Links for indirect processing ---------- */
@@ -335,6 +573,7 @@ public class Concept extends Item<Term> implements Serializable {
         int nSameContent = 0;
         float lowest_priority = Float.MAX_VALUE;
         TaskLink lowest = null;
+        final Bag<TaskLink,Task> taskLinks = getTaskLinks();
         for(final TaskLink tl : taskLinks) {
             final Sentence s = tl.getTarget().sentence;
             if(s.getTerm().equals(taskLink.getTerm()) && s.isEternal() == isEternal) {
@@ -346,6 +585,7 @@ public class Concept extends Item<Term> implements Serializable {
                 if(nSameContent > nal.narParameters.TASKLINK_PER_CONTENT) { //ok we reached the maximum so lets delete the lowest
                     taskLinks.pickOut(lowest);
                     memory.emit(TaskLinkRemove.class, lowest, this);
+                    lowest.release();
                     break;
                 }
             }
@@ -353,13 +593,11 @@ public class Concept extends Item<Term> implements Serializable {
         //END HANDLE MAX PER CONTENT
         final TaskLink removed = taskLinks.putIn(taskLink);      
         if (removed!=null) {
+            memory.emit(TaskLinkRemove.class, removed, this);
+            removed.release();
             if (removed == taskLink) {
-                memory.emit(TaskLinkRemove.class, taskLink, this);
                 return false;
             }
-            else {
-                memory.emit(TaskLinkRemove.class, removed, this);
-            }
         }
         memory.emit(TaskLinkAdd.class, taskLink, this);
         return true;
@@ -374,17 +612,18 @@ public class Concept extends Item<Term> implements Serializable {
      * @param taskBudget The BudgetValue of the task
      */
     public void buildTermLinks(final BudgetValue taskBudget, Parameters narParameters) {
-        if (termLinkTemplates.size() == 0) {
+        final List<TermLink> templates = getTermLinkTemplates();
+        if (templates == null || templates.size() == 0) {
             return;
         }
         
-        final BudgetValue subBudget = distributeAmongLinks(taskBudget, termLinkTemplates.size(), narParameters);
+        final BudgetValue subBudget = distributeAmongLinks(taskBudget, templates.size(), narParameters);
 
         if (!subBudget.aboveThreshold()) {
             return;
         }
 
-        for (final TermLink template : termLinkTemplates) {
+        for (final TermLink template : templates) {
             if (template.type == TermLink.TRANSFORM) {
                 continue;
             }
@@ -396,9 +635,14 @@ public class Concept extends Item<Term> implements Serializable {
                 continue;
             }
 
-            // this termLink to that and vice versa
-            insertTermLink(new TermLink(target, template, subBudget));
-            concept.insertTermLink(new TermLink(term, template, subBudget));
+            // this termLink to that and vice versa, each built holding the monitor of the concept
+            // whose BudgetArrays it is allocated in
+            synchronized (this) {
+                insertTermLink(newTermLink(target, template, subBudget));
+            }
+            synchronized (concept) {
+                concept.insertTermLink(concept.newTermLink(term, template, subBudget));
+            }
 
             if (target instanceof CompoundTerm && template.type != TermLink.TEMPORAL) {
                 concept.buildTermLinks(subBudget, narParameters);
@@ -407,23 +651,20 @@ public class Concept extends Item<Term> implements Serializable {
     }
 
     /**
-     * Insert a TermLink into the TermLink bag
+     * Insert a TermLink into the TermLink bag, holding the monitor of the concept
      * <p>
      * called from buildTermLinks only
      *
      * @param termLink The termLink to be inserted
      */
     public boolean insertTermLink(final TermLink termLink) {
-        final TermLink removed = termLinks.putIn(termLink);
+        final TermLink removed = getTermLinks().putIn(termLink);
         if (removed!=null) {
+            memory.emit(TermLinkRemove.class, removed, this);
+            removed.release();
             if (removed == termLink) {
-                memory.emit(TermLinkRemove.class, termLink, this);
                 return false;
             }
-            else {
-                //emit remove and add for this case
-                memory.emit(TermLinkRemove.class, removed, this);
-            }
         }
         memory.emit(TermLinkAdd.class, termLink, this);
         return true;        
@@ -447,8 +688,8 @@ public class Concept extends Item<Term> implements Serializable {
     public String toStringLong() {
         final String res =
                 toStringExternal() + " " + term.name()
-                + toStringIfNotNull(termLinks.size(), "termLinks")
-                + toStringIfNotNull(taskLinks.size(), "taskLinks")
+                + toStringIfNotNull(termLinks != null ? termLinks.size() : coldTermLinks != null ? coldTermLinks.length : 0, "termLinks")
+                + toStringIfNotNull(taskLinks != null ? taskLinks.size() : coldTaskLinks != null ? coldTaskLinks.length : 0, "taskLinks")
                 + toStringIfNotNull(beliefs.size(), "beliefs")
                 + toStringIfNotNull(desires.size(), "desires")
                 + toStringIfNotNull(questions.size(), "questions")
@@ -489,11 +730,12 @@ public class Concept extends Item<Term> implements Serializable {
      */
     @Override
     public float getQuality() {
-        final float linkPriority = termLinks.getAveragePriority();
+        final Bag<TermLink,TermLink> termLinks = this.termLinks;
+        final float linkPriority = termLinks == null ? coldTermLinkPriority : termLinks.getAveragePriority();
         final float termComplexityFactor = 1.0f / (term.getComplexity()*memory.narParameters.COMPLEXITY_UNIT);
         final float result = or(acquiredQuality, linkPriority, termComplexityFactor);
         if (result < 0) {
-            throw new IllegalStateException("Concept.getQuality < 0:  result=" + result + ", linkPriority=" + linkPriority + " ,termComplexityFactor=" + termComplexityFactor + ", termLinks.size=" + termLinks.size());
+            throw new IllegalStateException("Concept.getQuality < 0:  result=" + result + ", linkPriority=" + linkPriority + " ,termComplexityFactor=" + termComplexityFactor + ", cold=" + (termLinks == null));
         }
         return result;
     }
@@ -505,6 +747,9 @@ public class Concept extends Item<Term> implements Serializable {
      * @return The template get
      */
     public List<TermLink> getTermLinkTemplates() {
+        if (termLinkTemplates == null && term instanceof CompoundTerm) {
+            termLinkTemplates = memory.getTermLinkTemplates((CompoundTerm) term);
+        }
         return termLinkTemplates;
     }
 
@@ -519,10 +764,21 @@ public class Concept extends Item<Term> implements Serializable {
      * @return The selected isBelief
      */
     public Sentence getBelief(final DerivationContext nal, final Task task) {
+        return getBelief(nal, task, beliefs);
+    }
+
+    /**
+     * Select a isBelief among the given beliefs of the concept, like {@link #getBelief(DerivationContext, Task)}
+     *
+     * @param task The selected task
+     * @param beliefTable The beliefs of the concept to select from
+     * @return The selected isBelief
+     */
+    public Sentence getBelief(final DerivationContext nal, final Task task, final List<Task> beliefTable) {
         final Stamp taskStamp = task.sentence.stamp;
         final long currentTime = nal.time.time();
 
-        for (final Task beliefT : beliefs) {  
+        for (final Task beliefT : beliefTable) {  
             final Sentence belief = beliefT.sentence;
             nal.emit(BeliefSelect.class, belief);
             nal.setTheNewStamp(taskStamp, belief.stamp, currentTime);
@@ -557,6 +813,7 @@ public class Concept extends Item<Term> implements Serializable {
      */
     public TermLink selectTermLink(final TaskLink taskLink, final long time, final Parameters narParameters) {
         final int toMatch = narParameters.TERM_LINK_MAX_MATCHED; //Math.min(memory.param.termLinkMaxMatched.get(), termLinks.size());
+        final Bag<TermLink,TermLink> termLinks = getTermLinks();
         for (int i = 0; (i < toMatch) && (termLinks.size() > 0); i++) {
             
             final TermLink termLink = termLinks.takeOut();
@@ -574,8 +831,34 @@ public class Concept extends Item<Term> implements Serializable {
 
     }
 
+    /**
+     * Resize the link bags, forgetting the links of lowest priority when they shrink
+     *
+     * @param taskLinkCapacity The new capacity of the TaskLink bag
+     * @param termLinkCapacity The new capacity of the TermLink bag
+     */
+    public void setLinkCapacities(final int taskLinkCapacity, final int termLinkCapacity) {
+        if (isCold()) {
+            return; //the bags are rebuilt with the current capacities
+        }
+        if (taskLinks.getCapacity() == taskLinkCapacity && termLinks.getCapacity() == termLinkCapacity) {
+            return;
+        }
+        for (final TaskLink removed : taskLinks.setCapacity(taskLinkCapacity)) {
+            memory.emit(TaskLinkRemove.class, removed, this);
+            removed.release();
+        }
+        for (final TermLink removed : termLinks.setCapacity(termLinkCapacity)) {
+            memory.emit(TermLinkRemove.class, removed, this);
+            removed.release();
+        }
+    }
+
     public void returnTermLink(final TermLink termLink) {
-        termLinks.putBack(termLink, memory.cycles(memory.narParameters.TERMLINK_FORGET_DURATIONS), memory);
+        final TermLink removed = getTermLinks().putBack(termLink, memory.cycles(memory.narParameters.TERMLINK_FORGET_DURATIONS), memory);
+        if (removed != null) {
+            removed.release();
+        }
     }
 
     /**
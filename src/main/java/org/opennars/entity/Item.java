@@ -23,8 +23,15 @@
  */
 package org.opennars.entity;
 
+import org.opennars.inference.BudgetFunctions;
+import org.opennars.storage.Memory;
+
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
 
 /**
  * An item is an object that can be put into a Bag,
@@ -54,6 +61,9 @@ public abstract class Item<K> implements Serializable {
     /** The budget of the Item, consisting of 3 numbers */
     public final BudgetValue budget;
 
+    /* forgetting rate of the last put-back with LAZY_FORGETTING, applied by settleForgetting; 0 if none is pending */
+    private float pendingForgetCycles;
+
     public Item() { // items that do not need budget
         this.budget = null;
     }
@@ -167,6 +177,70 @@ public abstract class Item<K> implements Serializable {
         return this;
     }
 
+    /**
+     * Whether the Item should get any processing at all
+     * @return The decision on whether to process the Item
+     */
+    public boolean aboveThreshold() {
+        return budget.aboveThreshold();
+    }
+
+    /**
+     * Give back what the Item keeps outside of itself, once it left its bag for good.
+     * Nothing to do for an Item owning its budget, see {@link ArrayTaskLink} and {@link ArrayTermLink}
+     */
+    public void release() {
+    }
+
+    /**
+     * Apply forgetting to the budget, called when the Item is put back into a Bag.
+     * With LAZY_FORGETTING, the time-based model, only the rate is noted here, the decay is computed by
+     * {@link #settleForgetting(Memory)} when the bag takes the item out or re-levels it.
+     *
+     * @param forgetCycles The forgetting rate
+     * @param m The memory the bag belongs to
+     */
+    public void forget(final float forgetCycles, final Memory m) {
+        if (m.narParameters.LAZY_FORGETTING) {
+            pendingForgetCycles = forgetCycles;
+            if (getLastForgetTime() < 0) {
+                decay(forgetCycles, m); //only starts the clock
+            }
+        } else {
+            decay(forgetCycles, m);
+        }
+    }
+
+    /**
+     * Apply the forgetting noted by the last put-back, in closed form over the cycles passed since.
+     * Bags call it once the item is out of its level, as the level depends on the priority.
+     *
+     * @param m The memory the bag belongs to
+     */
+    public void settleForgetting(final Memory m) {
+        final float forgetCycles = pendingForgetCycles;
+        if (forgetCycles > 0) {
+            pendingForgetCycles = 0;
+            decay(forgetCycles, m);
+        }
+    }
+
+    /**
+     * Decrease the priority of the budget, see {@link BudgetFunctions#forget(BudgetValue, float, Memory)}
+     * @param forgetCycles The forgetting rate
+     * @param m The memory the bag belongs to
+     */
+    protected void decay(final float forgetCycles, final Memory m) {
+        BudgetFunctions.forget(budget, forgetCycles, m);
+    }
+
+    /**
+     * @return The cycle the priority was last decreased at, -1 if never
+     */
+    protected long getLastForgetTime() {
+        return budget.getLastForgetTime();
+    }
+
     /**
      * Return a String representation of the Item
      * @return The String representation of the full content
@@ -175,7 +249,8 @@ public abstract class Item<K> implements Serializable {
     public String toString() {        
         //return budget + " " + key ;
         
-        final String budgetStr = budget!=null ? budget.toString() : "";
+        final BudgetValue b = getBudget();
+        final String budgetStr = b!=null ? b.toString() : "";
         final String n = name().toString();
         return new StringBuilder(budgetStr.length()+n.length()+1).append(budgetStr).append(' ').append(n).toString();
     }
@@ -185,14 +260,14 @@ public abstract class Item<K> implements Serializable {
      * @return A simplified String representation of the content
      */
     public String toStringExternal() {                
-        final String briefBudget = budget.toStringExternal();
+        final String briefBudget = getBudget().toStringExternal();
         final String n = name().toString();
         return new StringBuilder(briefBudget.length()+n.length()+1).append(briefBudget).append(' ').append(n).toString();
     }
     
     /** similar to toStringExternal but includes budget afterward */
     public String toStringExternal2() {
-        final String briefBudget = budget.toStringExternal();
+        final String briefBudget = getBudget().toStringExternal();
         final String n = name().toString();
         return new StringBuilder(briefBudget.length()+n.length()+1).append(n).append(' ').append(briefBudget).toString();
     }
@@ -250,6 +325,41 @@ public abstract class Item<K> implements Serializable {
         return totalPriority;
     }
 
+    /**
+     * Select the items of highest priority
+     * <p>
+     * Each priority is read once, so items changing meanwhile do not upset the selection.
+     *
+     * @param items The candidates
+     * @param k The maximum number of items to select
+     * @return Up to k items, highest priority first
+     */
+    public static <E extends Item> List<E> topByPriority(final List<E> items, final int k) {
+        final int n = Math.min(k, items.size());
+        if (n <= 0) {
+            return new ArrayList<>(0);
+        }
+        final float[] priority = new float[items.size()];
+        for (int i = 0; i < priority.length; i++) {
+            priority[i] = items.get(i).getPriority();
+        }
+        final PriorityQueue<Integer> lowest = new PriorityQueue<>(n, (a, b) -> Float.compare(priority[a], priority[b]));
+        for (int i = 0; i < priority.length; i++) {
+            if (lowest.size() < n) {
+                lowest.add(i);
+            } else if (priority[i] > priority[lowest.peek()]) {
+                lowest.poll();
+                lowest.add(i);
+            }
+        }
+        final List<E> top = new ArrayList<>(n);
+        while (!lowest.isEmpty()) {
+            top.add(items.get(lowest.poll()));
+        }
+        Collections.reverse(top);
+        return top;
+    }
+
     public BudgetValue getBudget() {
         return budget;
     }
@@ -237,7 +237,7 @@ public class Sentence<T extends Term> implements Cloneable, Serializable {
             c.setNormalized(true);
         }
         else {
-            this.term = _content;
+            this.term = (T) Term.intern(_content);
         }
     
         if (isNotTermlinkNormalizer())
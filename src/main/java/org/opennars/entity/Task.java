@@ -23,6 +23,7 @@
  */
 package org.opennars.entity;
 
+import org.opennars.control.DerivationContext;
 import org.opennars.interfaces.Timable;
 import org.opennars.language.Term;
 import org.opennars.plugin.mental.InternalExperience;
@@ -89,6 +90,7 @@ public class Task<T extends Term> extends Item<Sentence<T>> implements Serializa
         this.sentence = s;
         this.parentBelief = parentBelief;
         this.bestSolution = solution;   
+        DerivationContext.taskCreated(this);
     }
     
     @Override public Sentence name() {
@@ -162,12 +164,57 @@ public class Task<T extends Term> extends Item<Sentence<T>> implements Serializa
      * @param judg The solution to be remembered
      */
     public void setBestSolution(final Memory memory,final Sentence judg, final Timable time) {
+        DerivationContext.checkTaskChange(this);
         if(memory.internalExperience != null) {
             InternalExperience.InternalExperienceFromBelief(memory, this, judg, time);
         }
         bestSolution = judg;
     }
 
+    /* The budget of a task shared with other concepts changes through DerivationContext while firing in a batch */
+
+    @Override
+    public void setPriority(final float v) {
+        DerivationContext.checkTaskChange(this);
+        super.setPriority(v);
+    }
+
+    @Override
+    public void incPriority(final float v) {
+        DerivationContext.checkTaskChange(this);
+        super.incPriority(v);
+    }
+
+    @Override
+    public void decPriority(final float v) {
+        DerivationContext.checkTaskChange(this);
+        super.decPriority(v);
+    }
+
+    @Override
+    public void setDurability(final float v) {
+        DerivationContext.checkTaskChange(this);
+        super.setDurability(v);
+    }
+
+    @Override
+    public void incDurability(final float v) {
+        DerivationContext.checkTaskChange(this);
+        super.incDurability(v);
+    }
+
+    @Override
+    public void decDurability(final float v) {
+        DerivationContext.checkTaskChange(this);
+        super.decDurability(v);
+    }
+
+    @Override
+    public void setQuality(final float v) {
+        DerivationContext.checkTaskChange(this);
+        super.setQuality(v);
+    }
+
     /**
      * Get the parent belief of a task
      *
@@ -80,8 +80,10 @@ public final class BudgetFunctions extends UtilityFunctions {
     static BudgetValue revise(final TruthValue tTruth, final TruthValue bTruth, final TruthValue truth, final boolean feedbackToLinks, final org.opennars.control.DerivationContext nal) {
         final float difT = truth.getExpDifAbs(tTruth);
         final Task task = nal.getCurrentTask();
-        task.decPriority(1 - difT);
-        task.decDurability(1 - difT);
+        //the task is shared with the other concepts linking to it, its budget changes after it is read here
+        final float taskPriority = (float) and(task.getPriority(), 1 - difT);
+        final float taskDurability = (float) and(task.getDurability(), 1 - difT);
+        nal.decBudget(task, 1 - difT, 1 - difT);
         if (feedbackToLinks) {
             final TaskLink tLink = nal.getCurrentTaskLink();
             tLink.decPriority(1 - difT);
@@ -92,8 +94,8 @@ public final class BudgetFunctions extends UtilityFunctions {
             bLink.decDurability(1 - difB);
         }
         final double dif = truth.getConfidence() - max(tTruth.getConfidence(), bTruth.getConfidence());
-        final float priority = or((float)dif, task.getPriority());
-        final float durability = aveAri((float)dif, task.getDurability());
+        final float priority = or((float)dif, taskPriority);
+        final float durability = aveAri((float)dif, taskDurability);
         final float quality = truthToQuality(truth);
         
         /*
@@ -187,12 +189,87 @@ public final class BudgetFunctions extends UtilityFunctions {
      * @param relativeThreshold The relative threshold of the bag
      */
     public static void applyForgetting(final BudgetValue budget, final float forgetCycles, final float relativeThreshold) {
-        float quality = budget.getQuality() * relativeThreshold;      // re-scaled quality
-        final float p = budget.getPriority() - quality;                     // priority above quality
+        budget.setPriority(forgottenPriority(budget.getPriority(), budget.getDurability(), budget.getQuality(), forgetCycles, relativeThreshold));
+    }
+
+    /**
+     * The priority after one step of {@link #applyForgetting(BudgetValue, float, float)}
+     *
+     * @param priority The previous priority
+     * @param durability The durability
+     * @param quality The quality
+     * @param forgetCycles The budget for forgetting in cycles
+     * @param relativeThreshold The relative threshold of the bag
+     * @return The decreased priority
+     */
+    public static float forgottenPriority(final float priority, final float durability, final float quality, final float forgetCycles, final float relativeThreshold) {
+        float q = quality * relativeThreshold;      // re-scaled quality
+        final float p = priority - q;                     // priority above quality
         if (p > 0) {
-            quality += p * pow(budget.getDurability(), 1.0 / (forgetCycles * p));
+            q += p * pow(durability, 1.0 / (forgetCycles * p));
         }    // priority Durability
-        budget.setPriority(quality);
+        return q;
+    }
+
+    /**
+     * Decrease Priority by the time passed since it was last decreased,
+     * instead of by one step per access.
+     * After forgetCycles cycles p-q becomes d*(p-q), whether the item was
+     * accessed in between or not. This is a forgetting model of its own:
+     * the per-access step of {@link #applyForgetting(BudgetValue, float, float)}
+     * shrinks p-q by d^(1/(forgetCycles*(p-q))) per put-back, depending on
+     * the priority and on how often the item is accessed, so the trajectories
+     * of the two differ.
+     * Nothing is computed when no cycle passed; the first call only starts the clock.
+     *
+     * @param budget The previous budget value
+     * @param forgetCycles Cycles after which p-q is multiplied by the durability
+     * @param relativeThreshold The relative threshold of the bag
+     * @param now The current cycle
+     */
+    public static void applyForgetting(final BudgetValue budget, final float forgetCycles, final float relativeThreshold, final long now) {
+        final long period = budget.setLastForgetTime(now);
+        if (period <= 0) {
+            return;
+        }
+        budget.setPriority(forgottenPriority(budget.getPriority(), budget.getDurability(), budget.getQuality(), forgetCycles, relativeThreshold, period));
+    }
+
+    /**
+     * The priority after {@link #applyForgetting(BudgetValue, float, float, long)} over a period
+     *
+     * @param priority The previous priority
+     * @param durability The durability
+     * @param quality The quality
+     * @param forgetCycles Cycles after which p-q is multiplied by the durability
+     * @param relativeThreshold The relative threshold of the bag
+     * @param period The cycles passed since the priority was last decreased, at least 1
+     * @return The decreased priority
+     */
+    public static float forgottenPriority(final float priority, final float durability, final float quality, final float forgetCycles, final float relativeThreshold, final long period) {
+        float q = quality * relativeThreshold;      // re-scaled quality
+        final float p = priority - q;                     // priority above quality
+        if (p > 0) {
+            q += p * pow(durability, period / forgetCycles);
+        }
+        return q;
+    }
+
+    /**
+     * Decrease Priority of an item put back into a bag, per access or,
+     * with LAZY_FORGETTING, by the time-based model over the cycles passed since it was last decreased
+     *
+     * @param budget The previous budget value
+     * @param forgetCycles The forgetting rate
+     * @param m The memory the bag belongs to
+     */
+    public static void forget(final BudgetValue budget, final float forgetCycles, final Memory m) {
+        final float relativeThreshold = m.narParameters.FORGET_QUALITY_RELATIVE;
+        if (m.narParameters.LAZY_FORGETTING) {
+            applyForgetting(budget, forgetCycles, relativeThreshold, m.getCycleCount());
+        } else {
+            applyForgetting(budget, forgetCycles, relativeThreshold);
+        }
     }
 
     
@@ -487,16 +487,16 @@ public final class CompositionalRules {
             res4 = new LinkedHashMap<>();
 
         if (figure == 21) {
-            Variables.findSubstitute(nal.memory.randomNumber, Symbols.VAR_INDEPENDENT, P1, S2, res1, res2);
+            Variables.findSubstitute(nal.random, Symbols.VAR_INDEPENDENT, P1, S2, res1, res2);
         }
         else if (figure == 12) {
-            Variables.findSubstitute(nal.memory.randomNumber, Symbols.VAR_INDEPENDENT, S1, P2, res1, res2);
+            Variables.findSubstitute(nal.random, Symbols.VAR_INDEPENDENT, S1, P2, res1, res2);
         }
         else if (figure == 11) {
-            Variables.findSubstitute(nal.memory.randomNumber, Symbols.VAR_INDEPENDENT, S1, S2, res1, res2);
+            Variables.findSubstitute(nal.random, Symbols.VAR_INDEPENDENT, S1, S2, res1, res2);
         }
         else if (figure == 22) {
-            Variables.findSubstitute(nal.memory.randomNumber, Symbols.VAR_INDEPENDENT, P1, P2, res1, res2);
+            Variables.findSubstitute(nal.random, Symbols.VAR_INDEPENDENT, P1, P2, res1, res2);
         }
 
         // this part is independent, the rule works if it unifies
@@ -541,7 +541,7 @@ public final class CompositionalRules {
                 for (final Term s1 : ((CompoundTerm) S1).term) {
                     res3.clear();
                     res4.clear(); //here the dependent part matters, see example of Issue40
-                    if (Variables.findSubstitute(nal.memory.randomNumber, Symbols.VAR_DEPENDENT, s1, S2, res3, res4)) {
+                    if (Variables.findSubstitute(nal.random, Symbols.VAR_DEPENDENT, s1, S2, res3, res4)) {
                         for (Term s2 : ((CompoundTerm) S1).term) {
                             if (!(s2 instanceof CompoundTerm)) {
                                 continue;
@@ -564,7 +564,7 @@ public final class CompositionalRules {
                 for (final Term s1 : ((CompoundTerm) S2).term) {
                     res3.clear();
                     res4.clear(); //here the dependent part matters, see example of Issue40
-                    if (Variables.findSubstitute(nal.memory.randomNumber, Symbols.VAR_DEPENDENT, s1, S1, res3, res4)) {
+                    if (Variables.findSubstitute(nal.random, Symbols.VAR_DEPENDENT, s1, S1, res3, res4)) {
                         for (Term s2 : ((CompoundTerm) S2).term) {
                             if (!(s2 instanceof CompoundTerm)) {
                                 continue;
@@ -601,7 +601,7 @@ public final class CompositionalRules {
         for (final Term s1 : p2.term) {
             res3.clear();
             res4.clear(); //here the dependent part matters, see example of Issue40
-            if (Variables.findSubstitute(nal.memory.randomNumber, Symbols.VAR_DEPENDENT, s1, p1, res3, res4)) {
+            if (Variables.findSubstitute(nal.random, Symbols.VAR_DEPENDENT, s1, p1, res3, res4)) {
                 eliminateVariableOfConditionAbductiveInner1(sentence, belief, nal, p2, res3, s1);
             }
         }
@@ -743,7 +743,7 @@ public final class CompositionalRules {
         for(Term t : app.keySet()) {
             shuffledVariables.add(t);
         }
-        Collections.shuffle(shuffledVariables, nal.memory.randomNumber);
+        Collections.shuffle(shuffledVariables, nal.random);
         Set<Term> selected = new LinkedHashSet<Term>();
         int i = 1;
         for(Term t : shuffledVariables) {
@@ -73,7 +73,7 @@ public class LocalRules {
         } else {
             if (matchingOrder(sentence, belief)) {
                 final Term[] u = new Term[] { sentence.term, belief.term };
-                if (Variables.unify(nal.memory.randomNumber, Symbols.VAR_QUERY, u)) {
+                if (Variables.unify(nal.random, Symbols.VAR_QUERY, u)) {
                     trySolution(belief, task, nal, true);
                 }
             }
@@ -123,7 +123,7 @@ public class LocalRules {
         newBelief.stamp.alreadyAnticipatedNegConfirmation = oldBelief.stamp.alreadyAnticipatedNegConfirmation;
         final TruthValue newTruth = newBelief.truth.clone();
         final TruthValue oldTruth = oldBelief.truth;
-        boolean useNewBeliefTerm = intervalProjection(nal, newBelief.getTerm(), oldBelief.getTerm(), beliefConcept.recent_intervals, newTruth);
+        boolean useNewBeliefTerm = intervalProjection(nal, newBelief.getTerm(), oldBelief.getTerm(), beliefConcept.getRecentIntervals(newBelief.getTerm().hasInterval()), newTruth);
         
         final TruthValue truth = TruthFunctions.revision(newTruth, oldTruth, nal.narParameters);
         final BudgetValue budget = BudgetFunctions.revise(newTruth, oldTruth, truth, feedbackToLinks, nal);
@@ -213,13 +213,13 @@ public class LocalRules {
             memory.emit(Events.TrySolution.class, isBetterSolution, task, belief);
             if (!isBetterSolution) {
                 if (problem.isGoal() && memory.emotion != null) {
-                    memory.emotion.adjustSatisfaction(oldQ, task.getPriority(), nal);
+                    nal.adjustSatisfaction(oldQ, task.getPriority());
                 }
                 memory.emit(Unsolved.class, task, belief, "Lower quality");               
                 return false;
             }
         }
-        task.setBestSolution(memory, belief, nal.time);
+        nal.setBestSolution(task, belief);
         //memory.logic.SOLUTION_BEST.commit(task.getPriority());
         
         final BudgetValue budget = solutionEval(task, belief, task, nal);
@@ -304,15 +304,15 @@ public class LocalRules {
         final float quality = solutionQuality(rateByConfidence, problem, solution, nal.mem(), nal.time);
         
         if (problem.sentence.isGoal() && nal.memory.emotion != null) {
-            nal.memory.emotion.adjustSatisfaction(quality, task.getPriority(), nal);
+            nal.adjustSatisfaction(quality, task.getPriority());
         }
         
         if (judgmentTask) {
-            task.incPriority(quality);
+            nal.incPriority(task, quality);
         } else {
             final float taskPriority = task.getPriority(); //+goal satisfication is a matter of degree - https://groups.google.com/forum/#!topic/open-nars/ZfCM416Dx1M
             budget = new BudgetValue(UtilityFunctions.or(taskPriority, quality), task.getDurability(), BudgetFunctions.truthToQuality(solution.truth), nal.narParameters);
-            task.setPriority(Math.min(1 - quality, taskPriority));
+            nal.setPriority(task, Math.min(1 - quality, taskPriority));
         }
         if (feedbackToLinks) {
             final TaskLink tLink = nal.getCurrentTaskLink();
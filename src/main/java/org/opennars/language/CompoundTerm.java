@@ -64,7 +64,13 @@ public abstract class CompoundTerm extends Term implements Iterable<Term> {
     private boolean hasVariables, hasVarQueries, hasVarIndeps, hasVarDeps, hasIntervals;
     
     int containedTemporalRelations = -1;
-    int hash;
+
+    /* the form with replaced intervals, this when there are none, null until computed */
+    private transient Term intervalFree;
+
+    /* summaries of the contained terms, see atomSignature and countTermRecursively, reset with the name */
+    private volatile long atomSignature;
+    private transient Map<Term, Integer> termCounts;
     private boolean normalized;
     
 
@@ -94,6 +100,16 @@ public abstract class CompoundTerm extends Term implements Iterable<Term> {
         public int[] term_indices = null; //size X, size Y, pos X, pos Y, min size X, min size Y
         public ConvRectangle(){} //the latter two for being able to assing a relative index for size too
     }
+    /** whether a component has term indices, only then there is a rectangle to compute */
+    static boolean hasTermIndices(final Term[] term) {
+        for (final Term t : term) {
+            if (t != null && t.term_indices != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public static ConvRectangle UpdateConvRectangle(final Term[] term) {
         String index_last_var = null;
         int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = 0, maxY = 0, 
@@ -151,9 +167,13 @@ public abstract class CompoundTerm extends Term implements Iterable<Term> {
         this.hasVariables = this.hasVarDeps = this.hasVarIndeps = this.hasVarQueries = false;
         
         if(this.term_indices == null) {
-            final ConvRectangle rect = UpdateConvRectangle(term);
-            this.index_variable = rect.index_variable;
-            this.term_indices = rect.term_indices;
+            if(hasTermIndices(term)) {
+                final ConvRectangle rect = UpdateConvRectangle(term);
+                this.index_variable = rect.index_variable;
+                this.term_indices = rect.term_indices;
+            } else {
+                this.index_variable = null; //as UpdateConvRectangle would give
+            }
         }
         
         for (final Term t : term) {
@@ -170,6 +190,31 @@ public abstract class CompoundTerm extends Term implements Iterable<Term> {
         
         if (!hasVar())
             setNormalized(true);
+
+        structuralHash();
+    }
+
+    /**
+     * The structural hash of a compound combines its operator, temporal order and
+     * the hashes of its components; it is recomputed lazily after invalidateName
+     */
+    @Override
+    public long structuralHash() {
+        long h = structuralHash;
+        if (h == 0) {
+            h = structuralSeed();
+            for (final Term t : term) {
+                h = (h ^ t.structuralHash()) * 0x100000001b3L;
+            }
+            h = mixHash(h);
+            structuralHash = h;
+        }
+        return h;
+    }
+
+    /** the part of the structural hash which isn't given by the components */
+    protected long structuralSeed() {
+        return 31L * (operator().ordinal() + 1) + getTemporalOrder();
     }
 
     
@@ -183,6 +228,16 @@ public abstract class CompoundTerm extends Term implements Iterable<Term> {
         setNormalized(false);
     }
 
+    @Override
+    protected void setName(final CharSequence newName) {
+        if (newName == null) { //components changed, drop what was derived from them
+            intervalFree = null;
+            atomSignature = 0;
+            termCounts = null;
+        }
+        super.setName(newName);
+    }
+
     /** Must be Term return type because the type of Term may change with different arguments */
     abstract public Term clone(final Term[] replaced);
     
@@ -239,16 +294,39 @@ public abstract class CompoundTerm extends Term implements Iterable<Term> {
         }
     }
 
-    public static Term replaceIntervals(Term T) {
+    /**
+     * The term with all intervals replaced, as used for concepts.
+     * It is computed once per compound and shared, so it must not be changed in place.
+     * Terms with variables get a copy even without intervals, their variables are scoped in place.
+     *
+     * @param T the term
+     * @return the term with replaced intervals, T itself if it has neither intervals nor variables,
+     *         null if it is no valid concept term
+     */
+    public static Term replaceIntervals(final Term T) {
         if(T instanceof CompoundTerm) {
-            T=T.cloneDeep(); //we will operate on a copy
-            if(T == null) {
-                return null; //not a valid concept term
-            }
-            ReplaceIntervals((CompoundTerm) T);
+            return ((CompoundTerm) T).intervalFree();
         }
         return T;
     }
+
+    private Term intervalFree() {
+        Term free = intervalFree;
+        if (free == null) {
+            if (!hasIntervals && !hasVar()) {
+                free = this;
+            } else {
+                free = cloneDeep(); //we will operate on a copy
+                if (free == null) {
+                    return null; //not a valid concept term
+                }
+                ReplaceIntervals((CompoundTerm) free);
+                ((CompoundTerm) free).intervalFree = free;
+            }
+            intervalFree = free;
+        }
+        return free;
+    }
     
     private static void ExtractIntervals(final Memory mem, final List<Long> ivals, final CompoundTerm comp) {
         for(int i=0; i<comp.term.length; i++) {
@@ -596,6 +674,8 @@ public abstract class CompoundTerm extends Term implements Iterable<Term> {
      */
     @Override
     public boolean containsTermRecursively(final Term target) { 
+        if (target == null || (target.atomSignature() & ~atomSignature()) != 0)
+            return false; //an atom of target isn't contained
         if (super.containsTermRecursively(target))
             return true;
         for (final Term term : term) {            
@@ -606,16 +686,34 @@ public abstract class CompoundTerm extends Term implements Iterable<Term> {
         return false;
     }
 
+    @Override
+    public long atomSignature() {
+        long signature = atomSignature;
+        if (signature == 0) {
+            for (final Term t : term) {
+                signature |= t.atomSignature();
+            }
+            atomSignature = signature;
+        }
+        return signature;
+    }
+
     /**
      * Recursively count how often the terms are contained
      *
-     * @param map The count map that will be created to count how often each term occurs
+     * @param map The count map that will be created to count how often each term occurs,
+     *            if null the counts of this term are computed once and returned read-only
      * @return The counts of the terms
      */
     @Override
     public Map<Term, Integer> countTermRecursively(Map<Term,Integer> map) { 
         if(map == null) {
-            map = new LinkedHashMap<Term, Integer>();
+            Map<Term, Integer> counts = termCounts;
+            if (counts == null) {
+                counts = Collections.unmodifiableMap(countTermRecursively(new LinkedHashMap<Term, Integer>()));
+                termCounts = counts;
+            }
+            return counts;
         }
         map.put(this, map.getOrDefault(this, 0) + 1);
         for (final Term term : term) {            
@@ -799,7 +897,8 @@ public abstract class CompoundTerm extends Term implements Iterable<Term> {
 
     @Override
     public int hashCode() {
-        return name().hashCode();
+        final long h = structuralHash();
+        return (int) (h ^ (h >>> 32));
     }
 
     @Override
@@ -810,12 +909,31 @@ public abstract class CompoundTerm extends Term implements Iterable<Term> {
         return super.compareTo(that);
     }
     
+    /**
+     * Compound terms are compared by structure, they are equal when their names are:
+     * same type, operator and temporal order, and equal components, atomic ones by name
+     */
     @Override
     public boolean equals(final Object that) {
         if (that==this) return true;                
-        if (!(that instanceof Term))
+        if (that == null || that.getClass() != getClass())
             return false;
-        return name().equals(((Term)that).name());
+        final CompoundTerm c = (CompoundTerm) that;
+        if (structuralHash() != c.structuralHash() || term.length != c.term.length
+                || operator() != c.operator() || getTemporalOrder() != c.getTemporalOrder()) {
+            return false;
+        }
+        for (int i = 0; i < term.length; i++) {
+            final Term a = term[i];
+            final Term b = c.term[i];
+            if (a == b) {
+                continue;
+            }
+            if (a instanceof CompoundTerm ? !a.equals(b) : (b instanceof CompoundTerm || !a.name().equals(b.name()))) {
+                return false;
+            }
+        }
+        return true;
     }   
 
     public void setNormalized(final boolean b) {
@@ -176,6 +176,7 @@ public class Conjunction extends CompoundTerm {
             for(int i=0;i<ct.term.length;i++) {
                 ct.term[i]=UpdateRelativeIndices(minX, minY, minsX, minsY, ct.term[i]);
             }
+            ct.setName(null); //components changed, name and hash are recomputed lazily
             return ct;
         } else {
             if(term.term_indices != null) {
@@ -256,28 +257,30 @@ public class Conjunction extends CompoundTerm {
         else {
             
             // sort/merge arguments
-            final NavigableSet<Term> set = new TreeSet<>();
             final Term[] flattened = flatten(argList, temporalOrder, spatial);
             final ConvRectangle rect = UpdateConvRectangle(flattened);
+            final Term[] members = new Term[flattened.length];
+            int n = 0;
             for (final Term t : flattened) {
                 if(!(t instanceof Interval)) { //intervals only for seqs
                     if(t.term_indices == null || rect == null || rect.term_indices == null) {
-                        set.add(t);
+                        members[n++] = t;
                     } 
                     else 
                     if(t instanceof CompoundTerm)
                     {   
                         final Term updated = UpdateRelativeIndices(rect.term_indices[2], rect.term_indices[3], rect.term_indices[4], rect.term_indices[5], t.cloneDeep());
-                        set.add(updated);
+                        members[n++] = updated;
                     }
                 }
             }
+            final Term[] set = sortDistinctInPlace(n == members.length ? members : Arrays.copyOf(members, n));
             
-            if (set.size() == 1) {
-                return set.first();
+            if (set.length == 1) {
+                return set[0];
             }
             
-            return new Conjunction(set.toArray(new Term[0]), temporalOrder, false, spatial, rect);
+            return new Conjunction(set, temporalOrder, false, spatial, rect);
         }
     }
 
@@ -23,6 +23,10 @@
  */
 package org.opennars.language;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import org.apache.commons.lang3.StringUtils;
 import org.opennars.inference.TemporalRules;
 import org.opennars.io.Symbols;
@@ -50,7 +54,11 @@ import java.util.*;
  */
 public class Term implements AbstractTerm, Serializable {
     public ImaginationSpace imagination;
-    private static final Map<CharSequence,Term> atoms = new LinkedHashMap();
+    /* atoms by name, shared by all threads and Nar instances, dropped when no longer referenced */
+    private static final Cache<String,Term> atoms = CacheBuilder.newBuilder().weakValues().build();
+
+    /* canonical instances of compound terms, see intern */
+    private static final Interner<Term> compounds = Interners.newWeakInterner();
 
     final public static Term SELF = SetExt.make(Term.get("SELF"));
     final public static Term SEQ_SPATIAL = Term.get("#");
@@ -59,6 +67,9 @@ public class Term implements AbstractTerm, Serializable {
     // private to cache it
     private CharSequence name = null;
 
+    /* structural 64-bit hash, 0 until computed, reset with the name */
+    volatile long structuralHash = 0;
+
     final public static boolean isSelf(final Term t) {
         return SELF.equals(t);
     }
@@ -110,7 +121,7 @@ public class Term implements AbstractTerm, Serializable {
     
     /** gets the atomic term given a name */
     public final static Term get(final CharSequence name) {
-        Term x = atoms.get(name); //only
+        Term x = atoms.getIfPresent(name.toString()); //only
         if (x != null && !x.toString().endsWith("]")) { //return only if it isn't an index term
             return x;
         }
@@ -145,9 +156,60 @@ public class Term implements AbstractTerm, Serializable {
         x = new Term(name2);
         x.term_indices = term_indices;
         x.index_variable = before_indices_str;
-        atoms.put(name2, x);
-        
-        return x;
+        if(term_indices != null) {
+            atoms.put(name2.toString(), x);
+            return x;
+        }
+        final Term existing = atoms.asMap().putIfAbsent(name2.toString(), x);
+        return existing != null ? existing : x;
+    }
+
+    /**
+     * Hash-cons a term: equal interned terms are the same object, down to their components.
+     * Only terms which are not changed in place and not bound to a Nar are shared, which excludes
+     * terms with variables (they are scoped and renamed in place), with spatial indices and with operators.
+     *
+     * @param t the term
+     * @return the canonical instance equal to t, or t itself if it can't be shared
+     */
+    public static Term intern(final Term t) {
+        return isShareable(t) ? share(t) : t;
+    }
+
+    private static Term share(final Term t) {
+        if (!(t instanceof CompoundTerm)) {
+            if (t instanceof Interval) {
+                return t;
+            }
+            final Term existing = atoms.asMap().putIfAbsent(t.name().toString(), t);
+            return existing != null ? existing : t;
+        }
+        final Term canonical = compounds.intern(t);
+        if (canonical == t) { //new: share its components as well
+            final Term[] components = ((CompoundTerm) t).term;
+            for (int i = 0; i < components.length; i++) {
+                components[i] = share(components[i]);
+            }
+        }
+        return canonical;
+    }
+
+    private static boolean isShareable(final Term t) {
+        if (t.term_indices != null || t.imagination != null) {
+            return false;
+        }
+        if (t instanceof CompoundTerm) {
+            if (t.hasVar() || t instanceof Operation) {
+                return false;
+            }
+            for (final Term component : ((CompoundTerm) t).term) {
+                if (!isShareable(component)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return (t.getClass() == Term.class && t.name() != null) || t instanceof Interval;
     }
     
     /** gets the atomic term of an integer */
@@ -277,8 +339,39 @@ public class Term implements AbstractTerm, Serializable {
      */
     // only method that should modify Term.name
     protected void setName(final CharSequence newName) {
+        if (newName == null || this.name != null) { //not just the lazily made name of the same structure
+            this.structuralHash = 0;
+        }
         this.name = newName;
     }
+
+    /**
+     * A 64-bit hash of the structure of the term, equal for equal terms.
+     * For atomic terms it is a hash of the name.
+     *
+     * @return The structural hash, never 0
+     */
+    public long structuralHash() {
+        long h = structuralHash;
+        if (h == 0) {
+            final CharSequence n = name();
+            h = 0xcbf29ce484222325L;
+            for (int i = 0; i < n.length(); i++) {
+                h = (h ^ n.charAt(i)) * 0x100000001b3L;
+            }
+            h = mixHash(h);
+            structuralHash = h;
+        }
+        return h;
+    }
+
+    /** final avalanche step of the structural hashes, never 0 */
+    static long mixHash(long h) {
+        h = (h ^ (h >>> 33)) * 0xff51afd7ed558ccdL;
+        h = (h ^ (h >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h != 0 ? h : 1;
+    }
     
     /**
      * @param that The Term to be compared with the current Term
@@ -305,6 +398,16 @@ public class Term implements AbstractTerm, Serializable {
         return 0;
     }
     
+    /**
+     * A 64-bit bloom signature of the atomic terms contained, each atom sets one bit of it.
+     * A term can only contain terms whose signature bits are all set in its own.
+     *
+     * @return The signature
+     */
+    public long atomSignature() {
+        return 1L << (structuralHash() >>> 58);
+    }
+
     /**
      * Recursively check if a compound contains a term
      *
@@ -419,16 +522,29 @@ public class Term implements AbstractTerm, Serializable {
                 
         }
         
-        //TODO fast sorted array for arg.length == 3
-
-        //terms > 2:        
-        final NavigableSet<Term> s = new TreeSet();
-        //SortedList<Term> s = new SortedList(arg.length);
-        //s.setAllowDuplicate(false);
+        //terms > 2:
+        return sortDistinctInPlace(arg.clone());
+    }
 
-        Collections.addAll(s, arg);
-        
-        return s.toArray(new Term[0]);
+    /**
+     * Sort an array of terms and drop duplicates, like a TreeSet would, but without its nodes.
+     * Small arrays are sorted by insertion without allocating.
+     *
+     * @param arg the terms, reordered by the call
+     * @return arg itself if there were no duplicates, else a shorter copy
+     */
+    static Term[] sortDistinctInPlace(final Term[] arg) {
+        if (arg.length < 2) {
+            return arg;
+        }
+        Arrays.sort(arg); //stable, the first of equal terms is kept as with a TreeSet
+        int n = 1;
+        for (int i = 1; i < arg.length; i++) {
+            if (arg[i].compareTo(arg[n - 1]) != 0) {
+                arg[n++] = arg[i];
+            }
+        }
+        return n == arg.length ? arg : Arrays.copyOf(arg, n);
     }
 
     /** performs a thorough check of the validity of a term (by cloneDeep it) to see if it's valid */
@@ -24,6 +24,7 @@
 package org.opennars.main;
 
 import org.apache.commons.lang3.StringUtils;
+import org.opennars.control.CycleScheduler;
 import org.opennars.entity.*;
 import org.opennars.interfaces.Timable;
 import org.opennars.interfaces.pub.Reasoner;
@@ -45,7 +46,8 @@ import org.opennars.language.Term;
 import org.opennars.operator.Operator;
 import org.opennars.plugin.Plugin;
 import org.opennars.plugin.perception.SensoryChannel;
-import org.opennars.storage.Bag;
+import org.opennars.storage.BagFactory;
+import org.opennars.storage.LevelBag;
 import org.opennars.storage.Memory;
 import org.xml.sax.SAXException;
 
@@ -55,6 +57,7 @@ import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.text.ParseException;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.opennars.language.SetInt;
@@ -79,7 +82,7 @@ public class Nar extends SensoryChannel implements Reasoner, Serializable, Runna
     public Parameters narParameters = new Parameters();
 
     /* System clock, relatively defined to guarantee the repeatability of behaviors */
-    private Long cycle = new Long(0);
+    private final AtomicLong cycle = new AtomicLong();
 
     /**
      * The information about the version of the project
@@ -101,6 +104,8 @@ public class Nar extends SensoryChannel implements Reasoner, Serializable, Runna
                     "    IRC:  http://webchat.freenode.net/?channels=org.opennars \n";
 
     private transient Thread[] threads = null;
+    /** adapts the work per cycle to CYCLE_DEADLINE_MS, created with the first cycle having one */
+    private transient CycleScheduler scheduler = null;
     protected transient Map<Term,SensoryChannel> sensoryChannels = new LinkedHashMap<>();
     public void addSensoryChannel(final String term, final SensoryChannel channel) {
         try {
@@ -200,10 +205,10 @@ public class Nar extends SensoryChannel implements Reasoner, Serializable, Runna
             NoSuchMethodException, ParserConfigurationException, SAXException, IllegalAccessException, ParseException, ClassNotFoundException {
         List<Plugin> pluginsToAdd = ConfigReader.loadParamsFromFileAndReturnPlugins(relativeConfigFilePath, this, this.narParameters);
         final Memory m = new Memory(this.narParameters,
-                new Bag(narParameters.CONCEPT_BAG_LEVELS, narParameters.CONCEPT_BAG_SIZE, this.narParameters),
-                new Bag<>(narParameters.NOVEL_TASK_BAG_LEVELS, narParameters.NOVEL_TASK_BAG_SIZE, this.narParameters),
-                new Bag<>(narParameters.SEQUENCE_BAG_LEVELS, narParameters.SEQUENCE_BAG_SIZE, this.narParameters),
-                new Bag<>(narParameters.OPERATION_BAG_LEVELS, narParameters.OPERATION_BAG_SIZE, this.narParameters));
+                BagFactory.create(narParameters.CONCEPT_BAG_TYPE, narParameters.CONCEPT_BAG_LEVELS, narParameters.CONCEPT_BAG_SIZE, this.narParameters),
+                BagFactory.create(narParameters.NOVEL_TASK_BAG_TYPE, narParameters.NOVEL_TASK_BAG_LEVELS, narParameters.NOVEL_TASK_BAG_SIZE, this.narParameters),
+                BagFactory.create(narParameters.SEQUENCE_BAG_TYPE, narParameters.SEQUENCE_BAG_LEVELS, narParameters.SEQUENCE_BAG_SIZE, this.narParameters),
+                new LevelBag<>(narParameters.OPERATION_BAG_LEVELS, narParameters.OPERATION_BAG_SIZE, this.narParameters));
         this.memory = m;
         this.memory.narId = narId;
         this.usedConfigFilePath = relativeConfigFilePath;
@@ -223,10 +228,10 @@ public class Nar extends SensoryChannel implements Reasoner, Serializable, Runna
         List<Plugin> pluginsToAdd = ConfigReader.loadParamsFromFileAndReturnPlugins(relativeConfigFilePath, this, this.narParameters);
         overrideParameters(narParameters, parameterOverrides);
         final Memory m = new Memory(this.narParameters,
-            new Bag(narParameters.CONCEPT_BAG_LEVELS, narParameters.CONCEPT_BAG_SIZE, this.narParameters),
-            new Bag<>(narParameters.NOVEL_TASK_BAG_LEVELS, narParameters.NOVEL_TASK_BAG_SIZE, this.narParameters),
-            new Bag<>(narParameters.SEQUENCE_BAG_LEVELS, narParameters.SEQUENCE_BAG_SIZE, this.narParameters),
-            new Bag<>(narParameters.OPERATION_BAG_LEVELS, narParameters.OPERATION_BAG_SIZE, this.narParameters));
+            BagFactory.create(narParameters.CONCEPT_BAG_TYPE, narParameters.CONCEPT_BAG_LEVELS, narParameters.CONCEPT_BAG_SIZE, this.narParameters),
+            BagFactory.create(narParameters.NOVEL_TASK_BAG_TYPE, narParameters.NOVEL_TASK_BAG_LEVELS, narParameters.NOVEL_TASK_BAG_SIZE, this.narParameters),
+            BagFactory.create(narParameters.SEQUENCE_BAG_TYPE, narParameters.SEQUENCE_BAG_LEVELS, narParameters.SEQUENCE_BAG_SIZE, this.narParameters),
+            new LevelBag<>(narParameters.OPERATION_BAG_LEVELS, narParameters.OPERATION_BAG_SIZE, this.narParameters));
         this.memory = m;
         this.memory.narId = narId;
         this.usedConfigFilePath = relativeConfigFilePath;
@@ -277,7 +282,7 @@ public class Nar extends SensoryChannel implements Reasoner, Serializable, Runna
      * Reset the system with an empty memory and reset clock. Called locally.
      */
     public void reset() {
-        cycle = (long) 0;
+        cycle.set(0);
         memory.reset();
     }
 
@@ -587,7 +592,11 @@ public class Nar extends SensoryChannel implements Reasoner, Serializable, Runna
             int n_threads = narParameters.THREADS_AMOUNT;
             threads = new Thread[n_threads];
             for(int i=0;i<n_threads;i++) {
-                threads[i] = new Thread(this, "Inference"+i);
+                final int worker = i;
+                threads[i] = new Thread(() -> {
+                    memory.bindRandom(worker);
+                    run();
+                }, "Inference"+i);
                 threads[i].start();
             }
         }
@@ -607,6 +616,8 @@ public class Nar extends SensoryChannel implements Reasoner, Serializable, Runna
             }
             threads = null;
         }
+        memory.shutdownFiringPool();
+        memory.closeSpill();
         stopped = true;
         running = false;
     }
@@ -631,10 +642,21 @@ public class Nar extends SensoryChannel implements Reasoner, Serializable, Runna
 
         while (running && !stopped) {
             emit(CyclesStart.class);
-            cycle();
+            final long remainingNanos = timedCycle();
             emit(CyclesEnd.class);
 
-            if (minCyclePeriodMS > 0) {
+            if (narParameters.IDLE_PARK_MS > 0 && memory.isIdle()) {
+                skipIdleSteps(memory.parkWhileIdle(narParameters.IDLE_PARK_MS));
+            }
+            else if (narParameters.CYCLE_DEADLINE_MS > 0) {
+                if (remainingNanos > 0) {
+                    try {
+                        Thread.sleep(remainingNanos / 1000000, (int) (remainingNanos % 1000000));
+                    } catch (final InterruptedException e) {
+                    }
+                }
+            }
+            else if (minCyclePeriodMS > 0) {
                 try {
                     Thread.sleep(minCyclePeriodMS);
                 } catch (final InterruptedException e) {
@@ -650,16 +672,46 @@ public class Nar extends SensoryChannel implements Reasoner, Serializable, Runna
         memory.event.emit(c, o);
     }
 
+    /**
+     * Advance the step clock over the steps which would have been run while the thread was parked,
+     * when steps have a duration (CYCLE_DEADLINE_MS, or else the minimal cycle period of start)
+     *
+     * @param parkedMS milliseconds the thread was parked
+     */
+    private void skipIdleSteps(final long parkedMS) {
+        final long stepMS = narParameters.CYCLE_DEADLINE_MS > 0 ? narParameters.CYCLE_DEADLINE_MS : minCyclePeriodMS;
+        if (!narParameters.STEPS_CLOCK || stepMS <= 0) {
+            return;
+        }
+        final long steps = parkedMS / stepMS;
+        if (steps > 0) {
+            cycle.addAndGet(steps);
+            memory.skipCycles(steps);
+        }
+    }
+
     /**
      * A frame, consisting of one or more Nar memory cycles
      */
     public void cycle() {
-        try {
-            memory.cycle(this);
+        timedCycle();
+    }
 
-            synchronized (cycle) {
-                cycle++;
+    /**
+     * A cycle with the work of the scheduler when CYCLE_DEADLINE_MS is set
+     *
+     * @return nanoseconds left of the cycle period, 0 without a period
+     */
+    private long timedCycle() {
+        long remainingNanos = 0;
+        try {
+            if (narParameters.CYCLE_DEADLINE_MS > 0) {
+                remainingNanos = getScheduler().cycle(memory, this);
+            } else {
+                memory.cycle(this);
             }
+
+            cycle.incrementAndGet();
         }
         catch (final Exception e) {
             if(Debug.SHOW_REASONING_ERRORS) {
@@ -669,6 +721,17 @@ public class Nar extends SensoryChannel implements Reasoner, Serializable, Runna
                 throw new IllegalStateException("Reasoning error:\n", e);
             }
         }
+        return remainingNanos;
+    }
+
+    /**
+     * @return the scheduler adapting the work per cycle to CYCLE_DEADLINE_MS, with its achieved rates
+     */
+    public synchronized CycleScheduler getScheduler() {
+        if (scheduler == null) {
+            scheduler = new CycleScheduler(narParameters);
+        }
+        return scheduler;
     }
 
     @Override
@@ -679,7 +742,7 @@ public class Nar extends SensoryChannel implements Reasoner, Serializable, Runna
 
     public long time() {
         if(narParameters.STEPS_CLOCK) {
-            return cycle;
+            return cycle.get();
         } else {
             return System.currentTimeMillis();
         }
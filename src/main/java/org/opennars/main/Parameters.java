@@ -40,9 +40,17 @@ public class Parameters implements Serializable {
     public volatile float DECISION_THRESHOLD = 0.51f;
 
     /** Size of ConceptBag and level amount */
-    //not changeable at runtime as bags would have to be re-constructed
+    //the size is read when the bag is created, resize it at runtime with Memory.setConceptCapacity
     public int CONCEPT_BAG_SIZE = 10000;
     public int CONCEPT_BAG_LEVELS = 1000;
+    /** File keeping the belief, desire and precondition tables of forgotten concepts, empty to drop them */
+    public String CONCEPT_SPILL_FILE = "";
+    /** Concepts put back below this priority drop their link bags until selected again, 0 to keep all of them hydrated */
+    public volatile float COLD_CONCEPT_PRIORITY = 0.0f;
+    /** Beliefs a concept keeps when it goes cold, the highest ranked ones */
+    public volatile int COLD_CONCEPT_BELIEFS = 7;
+    /** Bag implementation of the concepts, see BagFactory */
+    public String CONCEPT_BAG_TYPE = "org.opennars.storage.LinkedLevelBag";
     
     /** 
        Cycles per duration.
@@ -110,26 +118,45 @@ public class Parameters implements Serializable {
      */
     public float BAG_THRESHOLD = 1.0f;
 
+    /** Stripes of a ConcurrentLevelBag, each locked on its own, for THREADS_AMOUNT &gt; 1 */
+    public int BAG_STRIPES = 16;
+
     /** (see its use in budgetfunctions iterative forgetting) */
     public volatile float FORGET_QUALITY_RELATIVE = 0.3f;
 
     public volatile int REVISION_MAX_OCCURRENCE_DISTANCE = 10;
 
     /** Size of TaskLinkBag */
-    public int TASK_LINK_BAG_SIZE = 100;  //was 200 in new experiment
+    public volatile int TASK_LINK_BAG_SIZE = 100;  //was 200 in new experiment
     public int TASK_LINK_BAG_LEVELS = 10;
+    public String TASK_LINK_BAG_TYPE = "org.opennars.storage.LevelBag";
     /** Size of TermLinkBag */
-    public int TERM_LINK_BAG_SIZE = 100;  //was 1000 in new experiment
+    public volatile int TERM_LINK_BAG_SIZE = 100;  //was 1000 in new experiment
     public int TERM_LINK_BAG_LEVELS = 10;
+    public String TERM_LINK_BAG_TYPE = "org.opennars.storage.LevelBag";
+    /** Keep the budgets of the links of a concept in parallel arrays instead of one BudgetValue per link */
+    public boolean LINK_BUDGET_ARRAYS = false;
+    /** Terms whose TermLink templates are kept for the concepts created for them again, 0 to prepare them per concept */
+    public int TERM_LINK_TEMPLATE_CACHE_SIZE = 10000;
     /** Maximum TermLinks checked for novelty for each TaskLink in TermLinkBag */
     public volatile int TERM_LINK_MAX_MATCHED = 10;
     /** Size of Novel Task Buffer */
     public int NOVEL_TASK_BAG_SIZE = 1000;
     public int NOVEL_TASK_BAG_LEVELS = 100;
+    public String NOVEL_TASK_BAG_TYPE = "org.opennars.storage.LevelBag";
     public volatile int NOVEL_TASK_BAG_SELECTIONS = 100;
+    /**
+     * Concepts fired together in parallel each cycle, their derived tasks are merged in selection order; 1 fires one by one.
+     * The firings of a batch don't see the tasks derived by each other until the next cycle, so reasoning chains
+     * take more cycles than with concepts fired one by one.
+     */
+    public int CONCEPT_FIRING_BATCH = 1;
+    /** Threads firing the concepts of a batch, 0 to use one per available processor */
+    public int CONCEPT_FIRING_THREADS = 0;
     /**  Size of derived sequence and input event bag */
     public int SEQUENCE_BAG_SIZE = 30;
     public int SEQUENCE_BAG_LEVELS = 10;
+    public String SEQUENCE_BAG_TYPE = "org.opennars.storage.LevelBag";
     /**  Size of remembered last operation tasks */
     public int OPERATION_BAG_SIZE = 10;
     public int OPERATION_BAG_LEVELS = 10;
@@ -267,6 +294,13 @@ public class Parameters implements Serializable {
 
     /** Sequence bag forget durations */
     public volatile float EVENT_FORGET_DURATIONS = 4.0f;
+
+    /** Use the time-based forgetting model: decay priorities in closed form over the
+     *  cycles passed, when an item is taken out of its bag or re-levelled, rather than
+     *  by one step each time it is put back. This is a different model, not a faster
+     *  form of the per-access one: an item decays with time whether or not it is
+     *  accessed, and the NAL outcomes differ, see perf.ForgettingComparison */
+    public volatile boolean LAZY_FORGETTING = false;
     
     /** Maximum attempted combinations in variable introduction.*/
     public volatile int VARIABLE_INTRODUCTION_COMBINATIONS_MAX = 8;
@@ -288,6 +322,12 @@ public class Parameters implements Serializable {
     
     /** Default miliseconds per step at startup */
     public volatile int MILLISECONDS_PER_STEP = 0;
+
+    /** Wall-clock period of a cycle the work per cycle is adapted to, see CycleScheduler; 0 for fixed work per cycle */
+    public volatile int CYCLE_DEADLINE_MS = 0;
+
+    /** Longest an inference thread waits for input while there are neither novel tasks nor concepts; 0 to keep cycling */
+    public volatile int IDLE_PARK_MS = 100;
     
     /** Timing mode, steps or real time */
     public volatile boolean STEPS_CLOCK = true;
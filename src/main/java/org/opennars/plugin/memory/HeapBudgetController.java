@@ -0,0 +1,144 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2018 The OpenNARS authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.opennars.plugin.memory;
+
+import org.opennars.io.events.EventEmitter.EventObserver;
+import org.opennars.io.events.Events;
+import org.opennars.main.Nar;
+import org.opennars.plugin.Plugin;
+import org.opennars.storage.Memory;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Keeps the heap inside a budget by resizing the concept bag and the link bags
+ * <p>
+ * Every CHECK_CYCLES cycles the used heap is read from the MemoryMXBean. Above
+ * HIGH_WATER of the budget all capacities shrink by STEP, down to MIN_FRACTION
+ * of the capacities at the time the plugin was enabled; below LOW_WATER they
+ * grow back by the same step, up to those capacities. Example configuration:
+ * <pre>
+ * &lt;plugin classpath="org.opennars.plugin.memory.HeapBudgetController"&gt;
+ *     &lt;arg type="int.class" value="1024" name="HEAP_BUDGET_MB"/&gt;
+ *     &lt;arg type="int.class" value="100" name="CHECK_CYCLES"/&gt;
+ * &lt;/plugin&gt;
+ * </pre>
+ */
+public class HeapBudgetController implements Plugin {
+
+    /** heap the reasoner may use, in megabytes */
+    public volatile int HEAP_BUDGET_MB = 1024;
+    /** cycles between two checks of the heap */
+    public volatile int CHECK_CYCLES = 100;
+    /** fraction of the budget above which the bags shrink */
+    public volatile float HIGH_WATER = 0.9f;
+    /** fraction of the budget below which the bags grow again */
+    public volatile float LOW_WATER = 0.6f;
+    /** factor applied to the capacities by one shrinking step */
+    public volatile float STEP = 0.8f;
+    /** smallest fraction of the original capacities the bags shrink to */
+    public volatile float MIN_FRACTION = 0.1f;
+
+    public EventObserver obs;
+
+    /** capacities when the plugin was enabled */
+    private int conceptCapacity, taskLinkCapacity, termLinkCapacity;
+    /** fraction of these capacities currently in use */
+    private float scale = 1.0f;
+    private int cycles;
+
+    public HeapBudgetController() {}
+    public HeapBudgetController(final int HEAP_BUDGET_MB, final int CHECK_CYCLES) {
+        this.HEAP_BUDGET_MB = HEAP_BUDGET_MB;
+        this.CHECK_CYCLES = CHECK_CYCLES;
+    }
+
+    @Override
+    public synchronized boolean setEnabled(final Nar n, final boolean enabled) {
+        final Memory memory = n.memory;
+        if (enabled) {
+            conceptCapacity = memory.concepts.getCapacity();
+            taskLinkCapacity = memory.narParameters.TASK_LINK_BAG_SIZE;
+            termLinkCapacity = memory.narParameters.TERM_LINK_BAG_SIZE;
+            scale = 1.0f;
+            cycles = 0;
+        }
+        if (obs == null) {
+            obs = (event, a) -> cycleEnded(memory);
+        }
+        memory.event.set(obs, enabled, Events.CycleEnd.class);
+        if (!enabled && scale < 1.0f) {         // leave the bags as they were found
+            scale = 1.0f;
+            resize(memory);
+        }
+        return true;
+    }
+
+    /**
+     * Count a cycle and check the heap every CHECK_CYCLES of them;
+     * synchronized since CycleEnd is emitted by every inference thread when THREADS_AMOUNT is above 1
+     *
+     * @param memory the memory whose bags are resized
+     */
+    private synchronized void cycleEnded(final Memory memory) {
+        if (++cycles < CHECK_CYCLES) {
+            return;
+        }
+        cycles = 0;
+        check(memory, ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+    }
+
+    /**
+     * Shrink or grow the bags one step for the used heap
+     *
+     * @param memory the memory whose bags are resized
+     * @param usedBytes the heap in use
+     */
+    public synchronized void check(final Memory memory, final long usedBytes) {
+        final double budget = HEAP_BUDGET_MB * 1024.0 * 1024.0;
+        if (usedBytes > HIGH_WATER * budget && scale > MIN_FRACTION) {
+            scale = Math.max(MIN_FRACTION, scale * STEP);
+            resize(memory);
+        } else if (usedBytes < LOW_WATER * budget && scale < 1.0f) {
+            scale = Math.min(1.0f, scale / STEP);
+            resize(memory);
+        }
+    }
+
+    /**
+     * @return the fraction of the original capacities currently in use
+     */
+    public synchronized float getScale() {
+        return scale;
+    }
+
+    private void resize(final Memory memory) {
+        memory.setConceptCapacity(scaled(conceptCapacity));
+        memory.setLinkCapacities(scaled(taskLinkCapacity), scaled(termLinkCapacity));
+    }
+
+    private int scaled(final int capacity) {
+        return Math.max(1, Math.round(capacity * scale));
+    }
+}
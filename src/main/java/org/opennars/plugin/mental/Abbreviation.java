@@ -106,7 +106,7 @@ public class Abbreviation implements Plugin {
                 if (event != TaskDerive.class)
                     return;
 
-                if ((abbreviationProbability < 1.0) && (n.memory.randomNumber.nextDouble() >= abbreviationProbability))
+                if ((abbreviationProbability < 1.0) && (n.memory.getRandom().nextDouble() >= abbreviationProbability))
                     return;
 
                 final Task task = (Task)a[0];
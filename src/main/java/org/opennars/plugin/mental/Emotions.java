@@ -121,9 +121,16 @@ public class Emotions implements Plugin, Serializable {
         return busy;
     }
 
+    /** the emotions are shared by the concepts, a firing of a batch changes them through its DerivationContext */
+    private static void checkChange(final DerivationContext nal) {
+        if (DerivationContext.firingInBatch(nal.memory) != null) {
+            throw new IllegalStateException("Emotions changed in place while firing in a batch");
+        }
+    }
+
 
     public void adjustSatisfaction(final float newValue, final float weight, final DerivationContext nal) {
-        
+        checkChange(nal);
         //        float oldV = happyValue;
         happy += newValue * weight;
         happy /= 1.0f + weight;
@@ -198,7 +205,7 @@ public class Emotions implements Plugin, Serializable {
     public double lastbusy=0.5;
     public final double CHANGE_THRESHOLD = 0.25f;
     public void adjustBusy(final float newValue, final float weight, final DerivationContext nal) {
-
+        checkChange(nal);
         busy += newValue * weight;
         busy /= (1.0f + weight);
         
@@ -0,0 +1,77 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2018 The OpenNARS authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.opennars.storage;
+
+import org.opennars.entity.Item;
+import org.opennars.main.Parameters;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates bags from the implementation class names in {@link Parameters}
+ * <p>
+ * An implementation needs a public (int levels, int capacity, Parameters)
+ * constructor, as {@link LevelBag} and {@link LinkedLevelBag} have.
+ */
+public final class BagFactory {
+
+    /** constructors looked up so far, by class name; concepts create link bags all the time */
+    private static final Map<String, Constructor<?>> constructors = new ConcurrentHashMap<>();
+
+    private BagFactory() {
+    }
+
+    /**
+     * Create an empty bag
+     * @param type Fully qualified class name of the Bag implementation
+     * @param levels Priority levels of the bag
+     * @param capacity Maximum number of items
+     * @param narParameters Reasoner parameters
+     * @return The new bag
+     */
+    @SuppressWarnings("unchecked")
+    public static <Type extends Item<K>,K> Bag<Type,K> create(final String type, final int levels, final int capacity, final Parameters narParameters) {
+        final Constructor<?> constructor = constructors.computeIfAbsent(type, BagFactory::lookup);
+        try {
+            return (Bag<Type,K>) constructor.newInstance(levels, capacity, narParameters);
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Could not create bag " + type, e);
+        }
+    }
+
+    private static Constructor<?> lookup(final String type) {
+        try {
+            final Class<?> c = Class.forName(type);
+            if (!Bag.class.isAssignableFrom(c)) {
+                throw new IllegalArgumentException(type + " is not a Bag");
+            }
+            return c.getConstructor(int.class, int.class, Parameters.class);
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            throw new IllegalArgumentException("Unknown bag type " + type, e);
+        }
+    }
+}
@@ -0,0 +1,400 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2018 The OpenNARS authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.opennars.storage;
+
+import org.opennars.entity.BudgetValue;
+import org.opennars.entity.Concept;
+import org.opennars.entity.Sentence;
+import org.opennars.entity.Task;
+import org.opennars.language.Term;
+import org.opennars.main.Parameters;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Second tier of the concept memory: keeps the belief, desire and precondition
+ * tables of forgotten concepts in a memory-mapped, append-only file
+ * <p>
+ * The file is mapped in segments, each record is written into one segment as
+ * its length followed by the tables, and an index in the heap maps a term to
+ * the position of its latest record. A record holds the sentence and the budget
+ * values of each task, the tasks are rebuilt against the parameters of the
+ * memory they are restored into. Records are written by a thread of the spill,
+ * which also copies the tables of the forgotten concept under its monitor, so
+ * that the thread forgetting it doesn't lock a concept while holding the monitor
+ * of another one. Restoring a concept drops its index entry; the space of
+ * records not referenced anymore is only reclaimed by {@link #clear()}, which
+ * writes over the mapped segments again.
+ */
+public class ConceptSpill implements Closeable {
+
+    /** bytes mapped at once, a record larger than this gets a segment of its own */
+    private static final int SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    /** written in place of the Parameters referenced by truth values */
+    private enum Placeholder { PARAMETERS }
+
+    /** a forgotten concept, with its tables once the thread of the spill copied them */
+    private static final class Pending {
+        final Concept concept;
+        Tables tables;
+
+        Pending(final Concept concept) {
+            this.concept = concept;
+        }
+    }
+
+    /** the tables of a forgotten concept, copied under its monitor */
+    private static final class Tables {
+        final Task[] beliefs;
+        final Task[] desires;
+        final Task[] preconditions;
+        final Task[] generalPreconditions;
+
+        Tables(final Concept c) {
+            beliefs = c.beliefs.toArray(new Task[0]);
+            desires = c.desires.toArray(new Task[0]);
+            preconditions = c.executable_preconditions.toArray(new Task[0]);
+            generalPreconditions = c.general_executable_preconditions.toArray(new Task[0]);
+        }
+
+        boolean isEmpty() {
+            return beliefs.length == 0 && desires.length == 0 && preconditions.length == 0 && generalPreconditions.length == 0;
+        }
+    }
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    /** mapped segments, in file order */
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    /** file position of each segment */
+    private final List<Long> segmentStart = new ArrayList<>();
+    /** segment records are appended to */
+    private int current;
+    /** position of the latest record of each term: segment in the upper, offset in the lower half */
+    private final Map<Term, Long> index = new HashMap<>();
+    /** concepts stored but not written yet */
+    private final Map<Term, Pending> pending = new HashMap<>();
+    /** whether the spill was closed, it ignores concepts stored afterwards */
+    private boolean closed;
+    /** writes the records, off the inference threads */
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        final Thread thread = new Thread(r, "concept spill");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Open a spill file, dropping any previous content
+     * @param path The file to write to
+     * @throws IOException if the file can not be opened
+     */
+    public ConceptSpill(final File path) throws IOException {
+        file = new RandomAccessFile(path, "rw");
+        channel = file.getChannel();
+        channel.truncate(0); //nothing is mapped yet
+    }
+
+    /**
+     * Keep the tables of a concept, if it has any; they are copied under the
+     * concept's monitor and written to the file later by the thread of the spill
+     * @param c The concept which is forgotten
+     */
+    public synchronized void store(final Concept c) {
+        if (closed) {
+            return;
+        }
+        final Term term = c.getTerm();
+        final Pending entry = new Pending(c);
+        pending.put(term, entry);
+        writer.execute(() -> write(term, entry));
+    }
+
+    /**
+     * Copy the tables of a forgotten concept and write them, unless the concept
+     * was restored or stored again in the meantime
+     */
+    private void write(final Term term, final Pending entry) {
+        final Tables tables = copy(entry.concept);
+        synchronized (this) {
+            if (pending.get(term) != entry) {
+                return;
+            }
+            if (tables.isEmpty()) {
+                pending.remove(term);
+                return;
+            }
+            entry.tables = tables;
+        }
+        final byte[] record;
+        try {
+            record = serialize(tables);
+        } catch (final IOException e) {
+            throw new IllegalStateException("Could not spill concept " + term, e);
+        }
+        synchronized (this) {
+            if (pending.get(term) != entry) {
+                return;
+            }
+            pending.remove(term);
+            try {
+                index.put(term, append(record));
+            } catch (final IOException e) {
+                throw new IllegalStateException("Could not spill concept " + term, e);
+            }
+        }
+    }
+
+    private static Tables copy(final Concept c) {
+        synchronized (c) {
+            return new Tables(c);
+        }
+    }
+
+    /**
+     * Wait until the tables stored so far are written to the file
+     */
+    public void flush() {
+        try {
+            writer.submit(() -> { }).get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException("Could not flush concept spill", e);
+        }
+    }
+
+    /**
+     * Fill the tables of a new concept from the latest record of its term
+     * @param c The concept which is created again
+     * @return Whether a record was found
+     */
+    public synchronized boolean restore(final Concept c) {
+        if (closed) {
+            return false;
+        }
+        final Pending entry = pending.remove(c.getTerm());
+        if (entry != null) {
+            if (entry.tables != null) {
+                addAll(c, entry.tables);
+            } else { //not copied yet, the thread of the spill hands the tables over
+                writer.execute(() -> addAll(c, copy(entry.concept)));
+            }
+            return true;
+        }
+        final Long position = index.remove(c.getTerm());
+        if (position == null) {
+            return false;
+        }
+        final MappedByteBuffer segment = segments.get((int) (position >>> 32));
+        final int offset = (int) (long) position;
+        final byte[] record = new byte[segment.getInt(offset)];
+        final ByteBuffer view = segment.duplicate();
+        ((Buffer) view).position(offset + 4);
+        view.get(record);
+        final Parameters narParameters = c.memory.narParameters;
+        try (ObjectInputStream in = new RecordInput(new ByteArrayInputStream(record), narParameters)) {
+            readTasks(in, c.beliefs, narParameters);
+            readTasks(in, c.desires, narParameters);
+            readTasks(in, c.executable_preconditions, narParameters);
+            readTasks(in, c.general_executable_preconditions, narParameters);
+        } catch (final IOException | ClassNotFoundException e) {
+            throw new IllegalStateException("Could not restore concept " + c.getTerm(), e);
+        }
+        return true;
+    }
+
+    /**
+     * Add the tables to the ones of a concept, ranked like the tasks the concept processed
+     */
+    private static void addAll(final Concept c, final Tables tables) {
+        final Parameters narParameters = c.memory.narParameters;
+        synchronized (c) {
+            c.hydrateTables();
+            addAll(c.beliefs, tables.beliefs, narParameters.CONCEPT_BELIEFS_MAX, false);
+            addAll(c.desires, tables.desires, narParameters.CONCEPT_GOALS_MAX, false);
+            addAll(c.executable_preconditions, tables.preconditions, narParameters.CONCEPT_BELIEFS_MAX, true);
+            addAll(c.general_executable_preconditions, tables.generalPreconditions, narParameters.CONCEPT_BELIEFS_MAX, true);
+        }
+    }
+
+    private static void addAll(final List<Task> table, final Task[] tasks, final int capacity, final boolean rankTruthExpectation) {
+        for (final Task t : tasks) {
+            Concept.addToTable(t, table, capacity, rankTruthExpectation);
+        }
+    }
+
+    private static byte[] serialize(final Tables tables) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new RecordOutput(bytes)) {
+            writeTasks(out, tables.beliefs);
+            writeTasks(out, tables.desires);
+            writeTasks(out, tables.preconditions);
+            writeTasks(out, tables.generalPreconditions);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Write the sentence and the budget values of each task
+     */
+    private static void writeTasks(final ObjectOutputStream out, final Task[] tasks) throws IOException {
+        out.writeInt(tasks.length);
+        for (final Task t : tasks) {
+            out.writeObject(t.sentence);
+            out.writeFloat(t.getPriority());
+            out.writeFloat(t.getDurability());
+            out.writeFloat(t.getQuality());
+            out.writeBoolean(t.isInput());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void readTasks(final ObjectInputStream in, final List<Task> table, final Parameters narParameters) throws IOException, ClassNotFoundException {
+        final int n = in.readInt();
+        for (int i = 0; i < n; i++) {
+            final Sentence sentence = (Sentence) in.readObject();
+            final BudgetValue budget = new BudgetValue(in.readFloat(), in.readFloat(), in.readFloat(), narParameters);
+            table.add(new Task(sentence, budget, in.readBoolean() ? Task.EnumType.INPUT : Task.EnumType.DERIVED));
+        }
+    }
+
+    /** writes the Parameters of truth values as a placeholder */
+    private static final class RecordOutput extends ObjectOutputStream {
+        RecordOutput(final OutputStream out) throws IOException {
+            super(out);
+            enableReplaceObject(true);
+        }
+
+        @Override
+        protected Object replaceObject(final Object obj) {
+            return obj instanceof Parameters ? Placeholder.PARAMETERS : obj;
+        }
+    }
+
+    /** reads the placeholder as the Parameters of the memory restored into */
+    private static final class RecordInput extends ObjectInputStream {
+        private final Parameters narParameters;
+
+        RecordInput(final InputStream in, final Parameters narParameters) throws IOException {
+            super(in);
+            this.narParameters = narParameters;
+            enableResolveObject(true);
+        }
+
+        @Override
+        protected Object resolveObject(final Object obj) {
+            return obj == Placeholder.PARAMETERS ? narParameters : obj;
+        }
+    }
+
+    /**
+     * @return The number of terms with a record
+     */
+    public synchronized int size() {
+        return index.size() + pending.size();
+    }
+
+    /**
+     * Drop all records; the file is not truncated, as its segments stay mapped,
+     * new records are written over the old ones
+     */
+    public synchronized void clear() {
+        index.clear();
+        pending.clear();
+        for (final MappedByteBuffer segment : segments) {
+            ((Buffer) segment).clear();
+        }
+        current = 0;
+    }
+
+    /**
+     * Stop the thread of the spill, after it wrote the tables stored so far, and close the file;
+     * concepts stored afterwards are dropped, none is restored anymore
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            closed = true;
+        }
+        writer.shutdown();
+        try {
+            writer.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            index.clear();
+            pending.clear();
+            segments.clear();
+            segmentStart.clear();
+            file.close();
+        }
+    }
+
+    /**
+     * Write a record behind the last one, moving on to the next segment, or mapping
+     * a new one, when it does not fit
+     * @param record The bytes of the record
+     * @return The position of the record
+     */
+    private long append(final byte[] record) throws IOException {
+        final int needed = 4 + record.length;
+        while (current < segments.size() && segments.get(current).remaining() < needed) {
+            current++;
+        }
+        if (current == segments.size()) {
+            final int last = segments.size() - 1;
+            final long start = last < 0 ? 0 : segmentStart.get(last) + segments.get(last).capacity();
+            segments.add(channel.map(FileChannel.MapMode.READ_WRITE, start, Math.max(SEGMENT_SIZE, needed)));
+            segmentStart.add(start);
+        }
+        final MappedByteBuffer segment = segments.get(current);
+        final int offset = segment.position();
+        segment.putInt(record.length);
+        segment.put(record);
+        return ((long) current << 32) | offset;
+    }
+}
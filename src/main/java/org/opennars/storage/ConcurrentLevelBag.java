@@ -0,0 +1,327 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2018 The OpenNARS authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.opennars.storage;
+
+import org.opennars.entity.Item;
+import org.opennars.main.Parameters;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe Bag for use by several inference threads, meant for the concepts
+ * <p>
+ * Items are spread by key over stripes, each a {@link LinkedLevelBag} guarded
+ * by its own monitor, so putting in and picking out only contend with threads
+ * working on the same stripe. Lookups go to a ConcurrentHashMap and take no lock.
+ * <p>
+ * Take-out chooses a stripe with a probability proportional to its mass, the
+ * sum of the levels of its items, then selects by priority within the stripe,
+ * so a stripe of hot items is chosen more often than one of cold items. Each
+ * stripe holds its share of the capacity; with keys spread evenly this
+ * approximates one bag of the whole capacity. Small bags use a single stripe
+ * and behave exactly like a LinkedLevelBag.
+ */
+public class ConcurrentLevelBag<Type extends Item<K>,K> implements Bag<Type,K> {
+
+    /** fewest items a stripe is made for */
+    private static final int MIN_STRIPE_CAPACITY = 64;
+
+    /** the stripes, each also the monitor guarding itself */
+    private final LinkedLevelBag<Type,K>[] stripes;
+    /** mapping from key to item, kept in step with the stripes */
+    private final ConcurrentHashMap<K, Type> nameTable;
+    /** maximum number of items, shared out among the stripes */
+    private volatile int capacity;
+    /** mass of each stripe, published under its monitor after every change, read without it */
+    private final AtomicLong[] stripeMass;
+    /** position in the sequence choosing the stripe of the next take-out */
+    private final AtomicLong nextChoice = new AtomicLong();
+    /** fractional part of the golden ratio, in 64 bits: steps spreading the choices evenly over the mass */
+    private static final long GOLDEN_STEP = 0x9E3779B97F4A7C15L;
+
+    @SuppressWarnings("unchecked")
+    public ConcurrentLevelBag(final int levels, final int capacity, final Parameters narParameters) {
+        final int n = Math.max(1, Math.min(narParameters.BAG_STRIPES, capacity / MIN_STRIPE_CAPACITY));
+        final int stripeCapacity = (capacity + n - 1) / n;
+        stripes = new LinkedLevelBag[n];
+        stripeMass = new AtomicLong[n];
+        for (int i = 0; i < n; i++) {
+            stripes[i] = new LinkedLevelBag<>(levels, stripeCapacity, narParameters);
+            stripeMass[i] = new AtomicLong();
+        }
+        nameTable = new ConcurrentHashMap<>(capacity * 2);
+        this.capacity = capacity;
+    }
+
+    @Override
+    public boolean isConcurrent() {
+        return true;
+    }
+
+    /**
+     * The monitor guarding the items of a key, other stripes stay available while it is held
+     * @param key The key
+     * @return The monitor of the key's stripe
+     */
+    @Override
+    public Object lockOf(final K key) {
+        return stripes[stripeIndex(key)];
+    }
+
+    private int stripeIndex(final K key) {
+        if (stripes.length == 1) {
+            return 0;
+        }
+        final int h = key.hashCode();
+        return ((h ^ (h >>> 16)) & 0x7fffffff) % stripes.length;
+    }
+
+    /** publish the mass of a stripe after a change, called holding the stripe */
+    private void massChanged(final int i) {
+        stripeMass[i].set(stripes[i].getMass());
+    }
+
+    @Override
+    public void clear() {
+        clear(0);
+    }
+
+    /** clears the stripes from i on while holding the monitors of all stripes, in order */
+    private void clear(final int i) {
+        if (i == stripes.length) {
+            nameTable.clear();
+            return;
+        }
+        synchronized (stripes[i]) {
+            clear(i + 1);
+            stripes[i].clear();
+            massChanged(i);
+        }
+    }
+
+    /**
+     * Get the average priority of Items
+     * @return The average priority of Items in the bag
+     */
+    @Override
+    public float getAveragePriority() {
+        float sum = 0;
+        int size = 0;
+        for (final LinkedLevelBag<Type,K> stripe : stripes) {
+            synchronized (stripe) {
+                if (stripe.size() > 0) {
+                    sum += stripe.getAveragePriority() * stripe.size();
+                    size += stripe.size();
+                }
+            }
+        }
+        return size == 0 ? 0.01f : sum / size;
+    }
+
+    @Override
+    public boolean contains(final Type it) {
+        return it.equals(nameTable.get(it.name()));
+    }
+
+    @Override
+    public Type get(final K key) {
+        return nameTable.get(key);
+    }
+
+    @Override
+    public Type putIn(final Type newItem) {
+        final K key = newItem.name();
+        final int i = stripeIndex(key);
+        synchronized (stripes[i]) {
+            return track(i, key, newItem, stripes[i].putIn(newItem));
+        }
+    }
+
+    @Override
+    public Type putBack(final Type oldItem, final float forgetCycles, final Memory m) {
+        final K key = oldItem.name();
+        final int i = stripeIndex(key);
+        synchronized (stripes[i]) {
+            return track(i, key, oldItem, stripes[i].putBack(oldItem, forgetCycles, m));
+        }
+    }
+
+    /** keep the name table and the mass in step with what a stripe took in, called holding the stripe */
+    private Type track(final int i, final K key, final Type item, final Type overflowItem) {
+        massChanged(i);
+        nameTable.put(key, item);
+        if (overflowItem != null) {             // the stripe dropped an item of its own
+            nameTable.remove(overflowItem.name());
+        }
+        return overflowItem;
+    }
+
+    /**
+     * Take an Item out of a stripe chosen by its mass, by priority within the stripe; the
+     * following stripes are tried if it became empty in the meantime
+     * @return The selected Item, or null if the bag is empty
+     */
+    @Override
+    public Type takeOut() {
+        final int start = chooseStripe();
+        for (int n = 0; n < stripes.length; n++) {
+            final int i = (start + n) % stripes.length;
+            synchronized (stripes[i]) {
+                final Type selected = stripes[i].takeOut();
+                if (selected != null) {
+                    massChanged(i);
+                    nameTable.remove(selected.name());
+                    return selected;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Choose a stripe with a probability proportional to its mass, from a sequence
+     * spreading the choices evenly and repeating the same way in every run
+     * @return The index of the stripe, 0 if all are empty
+     */
+    private int chooseStripe() {
+        if (stripes.length == 1) {
+            return 0;
+        }
+        final long[] mass = new long[stripes.length];
+        long total = 0;
+        for (int i = 0; i < stripes.length; i++) {
+            mass[i] = stripeMass[i].get();
+            total += mass[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        //the upper 31 bits of the sequence as a fraction of the total mass
+        long point = ((nextChoice.getAndAdd(GOLDEN_STEP) >>> 33) * total) >>> 31;
+        for (int i = 0; i < stripes.length; i++) {
+            if (point < mass[i]) {
+                return i;
+            }
+            point -= mass[i];
+        }
+        return stripes.length - 1;
+    }
+
+    @Override
+    public Type pickOut(final K key) {
+        final int i = stripeIndex(key);
+        synchronized (stripes[i]) {
+            final Type picked = stripes[i].pickOut(key);
+            if (picked != null) {
+                massChanged(i);
+                nameTable.remove(key);
+            }
+            return picked;
+        }
+    }
+
+    @Override
+    public Type pickOut(final Type val) {
+        return pickOut(val.name());
+    }
+
+    @Override
+    public int size() {
+        return nameTable.size();
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Shares the new capacity out among the stripes, whose number stays the
+     * same; each stripe keeps room for at least one item
+     */
+    @Override
+    public List<Type> setCapacity(final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Bag capacity must be at least 1: " + capacity);
+        }
+        this.capacity = capacity;
+        final int stripeCapacity = (capacity + stripes.length - 1) / stripes.length;
+        final List<Type> evicted = new ArrayList<>();
+        for (int i = 0; i < stripes.length; i++) {
+            synchronized (stripes[i]) {
+                for (final Type item : stripes[i].setCapacity(stripeCapacity)) {
+                    nameTable.remove(item.name());
+                    evicted.add(item);
+                }
+                massChanged(i);
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Iterates the items without locking; items put in or taken out meanwhile may or may not be seen
+     */
+    @Override
+    public Iterator<Type> iterator() {
+        return nameTable.values().iterator();
+    }
+
+    /**
+     * Copies the stripes one after the other, each under its own monitor only,
+     * so every stripe is consistent but the stripes are not taken at one instant
+     */
+    @Override
+    public List<Type> snapshot() {
+        final List<Type> copy = new ArrayList<>(nameTable.size());
+        for (final LinkedLevelBag<Type,K> stripe : stripes) {
+            synchronized (stripe) {
+                for (final Type item : stripe) {
+                    copy.add(item);
+                }
+            }
+        }
+        return copy;
+    }
+
+    @Override
+    public List<Type> topK(final int k) {
+        return Item.topByPriority(snapshot(), k);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder buf = new StringBuilder();
+        for (final LinkedLevelBag<Type,K> stripe : stripes) {
+            synchronized (stripe) {
+                buf.append(stripe);
+            }
+        }
+        return buf.toString();
+    }
+}
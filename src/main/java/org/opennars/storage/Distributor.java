@@ -24,16 +24,36 @@
 package org.opennars.storage;
 
 import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A pseudo-random number generator, used in Bag.
+ * <p>
+ * The sequence depends only on the range, so bags share one instance per
+ * range through {@link #get(int)}; the tables must not be modified.
  */
 public class Distributor implements Serializable {
 
-    /** Shuffled sequence of index numbers */
-    public int order[];
+    /** Shared instances, by range */
+    private static final Map<Integer, Distributor> instances = new ConcurrentHashMap<>();
+
+    /** Shuffled sequence of index numbers, shared by all bags of the range, read through {@link #pick(int)} */
+    private final int order[];
     /** Capacity of the array */
-    private int capacity;
+    private final int capacity;
+    /** Ascending indices at which each number occurs in order */
+    private final int[][] positions;
+
+    /**
+     * Get the shared Distributor for a range, building it on first use
+     * @param range Range of valid numbers
+     * @return The Distributor for the range
+     */
+    public static Distributor get(final int range) {
+        return instances.computeIfAbsent(range, Distributor::new);
+    }
 
     /**
      * For any number N &lt; range, there is N+1 copies of it in the array, distributed as evenly as possible
@@ -55,6 +75,15 @@ public class Distributor implements Serializable {
                 order[index] = rank - 1;
             }
         }
+        positions = new int[range][];
+        final int[] count = new int[range];
+        for (rank = 0; rank < range; rank++) {
+            positions[rank] = new int[rank + 1];
+        }
+        for (index = 0; index < capacity; index++) {
+            rank = order[index];
+            positions[rank][count[rank]++] = index;
+        }
     }
 
     /**
@@ -74,4 +103,41 @@ public class Distributor implements Serializable {
     public int next(int index) {
         return (index + 1) % capacity;
     }
-}
\ No newline at end of file
+
+    /**
+     * Find the first index, going forward from the given one, whose number is
+     * in the given set; the same index repeated pick/next calls would stop at
+     * <p>
+     * Costs a binary search per number in the set instead of one step per
+     * skipped index, which pays off when the set is small.
+     * @param numbers The numbers to look for, must not be empty
+     * @param index The current index
+     * @return the index of the first number found
+     */
+    int seek(final LevelBitmap numbers, final int index) {
+        int best = -1;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int number = numbers.lowest(); number >= 0; number = numbers.next(number + 1)) {
+            final int[] at = positions[number];
+            int i = Arrays.binarySearch(at, index);
+            if (i < 0) {
+                i = -i - 1;
+            }
+            final int found = (i < at.length) ? at[i] : at[0];
+            final int distance = (found >= index) ? found - index : found + capacity - index;
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = found;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Deserialized copies are replaced by the shared instance
+     * @return The shared Distributor for the same range
+     */
+    private Object readResolve() {
+        return instances.computeIfAbsent(positions.length, range -> this);
+    }
+}
@@ -0,0 +1,450 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2018 The OpenNARS authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.opennars.storage;
+
+import com.google.common.collect.Iterators;
+import org.opennars.entity.Item;
+import org.opennars.main.Parameters;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Bag which selects items with probability exactly proportional to their priority
+ * <p>
+ * Items sit in a dense slot array. A Fenwick (binary indexed) tree over the
+ * slot priorities samples and re-weights a slot in O(log n). An indexed
+ * min-heap over the same slots finds the item to evict when the bag is full.
+ * Removing an item moves the last slot into its place, so the slots stay dense.
+ * <p>
+ * Priorities are read when an item is put in or updated; changing a budget
+ * while the item is in the bag takes effect at the next {@link #update}.
+ */
+public class FenwickBag<Type extends Item<K>,K> implements UpdatableBag<Type,K> {
+
+    /** tree updates after which the sums are rebuilt, in multiples of the capacity, to drop rounding drift */
+    private static final int REBUILD_PERIOD = 4;
+
+    /** maximum number of items */
+    private int capacity;
+    /** mapping from key to slot */
+    private HashMap<K, Integer> slotOf;
+    /** items, by slot */
+    private Item<K>[] items;
+    /** priority of each slot as last seen */
+    private double[] weight;
+    /** Fenwick tree of the slot weights, 1-based */
+    private double[] tree;
+    /** sum of all weights */
+    private double total;
+    /** min-heap of slots by weight */
+    private int[] heap;
+    /** position of each slot in the heap */
+    private int[] heapIndex;
+    /** number of items, also the number of used slots and heap entries */
+    private int size;
+    /** tree updates since the last rebuild */
+    private int updates;
+    /** source of the selection, seeded per bag so that runs are repeatable */
+    private final Random random;
+
+    /* memory of the last put-back, the clock of forgetting left pending by it, see Item.settleForgetting */
+    private transient Memory forgetting;
+
+    /**
+     * @param levels Ignored, selection does not use levels
+     * @param capacity Maximum number of items
+     * @param narParameters Reasoner parameters
+     */
+    public FenwickBag(final int levels, final int capacity, final Parameters narParameters) {
+        this.capacity = capacity;
+        this.random = new Random(capacity);
+        clear();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void clear() {
+        slotOf = new HashMap<>(capacity * 2);
+        items = new Item[capacity];
+        weight = new double[capacity];
+        tree = new double[capacity + 1];
+        heap = new int[capacity];
+        heapIndex = new int[capacity];
+        total = 0;
+        size = 0;
+        updates = 0;
+    }
+
+    /**
+     * Get the average priority of Items
+     * @return The average priority of Items in the bag
+     */
+    @Override
+    public float getAveragePriority() {
+        if (size == 0) {
+            return 0.01f;
+        }
+        return (float) Math.min(1.0, total / size);
+    }
+
+    @Override
+    public boolean contains(final Type it) {
+        final Integer slot = slotOf.get(it.name());
+        return slot != null && items[slot].equals(it);
+    }
+
+    @Override
+    public Type get(final K key) {
+        final Integer slot = slotOf.get(key);
+        return slot == null ? null : item(slot);
+    }
+
+    /**
+     * Add a new Item into the Bag
+     * <p>
+     * An item with the key of one in the bag replaces it, merged with it;
+     * otherwise a full bag drops the item of lowest priority, or the new one
+     * if it has an even lower priority.
+     * @param newItem The new Item
+     * @return the item which was removed, which may be the input item if it could not be inserted; or null if nothing needed removed
+     */
+    @Override
+    public Type putIn(final Type newItem) {
+        final Integer slot = slotOf.get(newItem.name());
+        if (slot != null) {                     // merge duplications
+            settle(item(slot));
+            newItem.merge(item(slot));
+            items[slot] = newItem;
+            reweight(slot);
+            return null;
+        }
+        Type overflowItem = null;
+        if (size == capacity) {                 // the bag is full
+            final int lowest = heap[0];
+            if (weight[lowest] > weightOf(newItem)) {
+                return newItem;
+            }
+            overflowItem = item(lowest);
+            remove(lowest);
+        }
+        insert(newItem);
+        return overflowItem;
+    }
+
+    @Override
+    public Type putBack(final Type oldItem, final float forgetCycles, final Memory m) {
+        oldItem.forget(forgetCycles, m);
+        forgetting = m;
+        return putIn(oldItem);
+    }
+
+    /**
+     * Apply the forgetting pending since the item was put back, once it is out of its level
+     * @param item The item taken out of its level
+     */
+    private void settle(final Type item) {
+        if (forgetting != null) {
+            item.settleForgetting(forgetting);
+        }
+    }
+
+    @Override
+    public Type update(final Type item, final float forgetCycles, final Memory m) {
+        final Integer slot = slotOf.get(item.name());
+        if (slot == null) {
+            return null;
+        }
+        item.forget(forgetCycles, m);
+        forgetting = m;
+        items[slot] = item;
+        reweight(slot);
+        return item;
+    }
+
+    /**
+     * Choose an Item with probability proportional to its priority and take it out of the Bag
+     * @return The selected Item, or null if the bag is empty
+     */
+    @Override
+    public Type takeOut() {
+        if (size == 0) {
+            return null;
+        }
+        final int slot = (total > 0) ? find(random.nextDouble() * total) : random.nextInt(size);
+        final Type selected = item(slot);
+        remove(slot);
+        settle(selected);
+        return selected;
+    }
+
+    @Override
+    public Type pickOut(final K key) {
+        final Integer slot = slotOf.get(key);
+        if (slot == null) {
+            return null;
+        }
+        final Type picked = item(slot);
+        remove(slot);
+        settle(picked);
+        return picked;
+    }
+
+    @Override
+    public Type pickOut(final Type val) {
+        return pickOut(val.name());
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Evicts the items of lowest priority down to the new capacity, then
+     * resizes the arrays and rebuilds the tree
+     */
+    @Override
+    public List<Type> setCapacity(final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Bag capacity must be at least 1: " + capacity);
+        }
+        final List<Type> evicted = new ArrayList<>();
+        while (size > capacity) {
+            final int lowest = heap[0];
+            evicted.add(item(lowest));
+            remove(lowest);
+        }
+        this.capacity = capacity;
+        items = Arrays.copyOf(items, capacity);
+        weight = Arrays.copyOf(weight, capacity);
+        heap = Arrays.copyOf(heap, capacity);
+        heapIndex = Arrays.copyOf(heapIndex, capacity);
+        tree = new double[capacity + 1];
+        rebuild();
+        return evicted;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Iterator<Type> iterator() {
+        return Iterators.limit(Iterators.forArray((Type[]) items), size);
+    }
+
+    @Override
+    public List<Type> snapshot() {
+        final List<Type> copy = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            copy.add((Type) items[i]);
+        }
+        return copy;
+    }
+
+    @Override
+    public List<Type> topK(final int k) {
+        return Item.topByPriority(snapshot(), k);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder buf = new StringBuilder(" ");
+        for (int i = 0; i < size; i++) {
+            buf.append(items[i].toStringExternal()).append("\n ");
+        }
+        return buf.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Type item(final int slot) {
+        return (Type) items[slot];
+    }
+
+    private static double weightOf(final Item item) {
+        return Math.max(0.0, item.getPriority());
+    }
+
+    /**
+     * Append an item in a new slot
+     * @param item The Item
+     */
+    private void insert(final Type item) {
+        final int slot = size++;
+        items[slot] = item;
+        weight[slot] = weightOf(item);
+        slotOf.put(item.name(), slot);
+        add(slot, weight[slot]);
+        heap[slot] = slot;
+        heapIndex[slot] = slot;
+        siftUp(slot);
+        settle();
+    }
+
+    /**
+     * Remove the item of a slot and move the last slot into its place
+     * @param slot The slot
+     */
+    private void remove(final int slot) {
+        final int last = size - 1;
+        slotOf.remove(items[slot].name());
+        add(slot, -weight[slot]);
+        final int at = heapIndex[slot];         // heap removal, the last heap entry fills the gap
+        final int moved = heap[last];
+        heap[at] = moved;
+        heapIndex[moved] = at;
+        if (slot != last) {                     // the last slot moves to the freed one
+            items[slot] = items[last];
+            weight[slot] = weight[last];
+            slotOf.put(items[slot].name(), slot);
+            add(slot, weight[last]);
+            add(last, -weight[last]);
+            heap[heapIndex[last]] = slot;
+            heapIndex[slot] = heapIndex[last];
+        }
+        items[last] = null;
+        weight[last] = 0;
+        size = last;
+        if (at < size) {
+            siftDown(at);
+            siftUp(at);
+        }
+        settle();
+    }
+
+    /**
+     * Read the priority of a slot's item again and reposition it
+     * @param slot The slot
+     */
+    private void reweight(final int slot) {
+        final double w = weightOf(items[slot]);
+        add(slot, w - weight[slot]);
+        weight[slot] = w;
+        siftDown(heapIndex[slot]);
+        siftUp(heapIndex[slot]);
+        settle();
+    }
+
+    /**
+     * Add to the weight of a slot in the tree and the total
+     * @param slot The slot
+     * @param delta The weight difference
+     */
+    private void add(final int slot, final double delta) {
+        for (int i = slot + 1; i <= capacity; i += i & -i) {
+            tree[i] += delta;
+        }
+        total += delta;
+        updates++;
+    }
+
+    /**
+     * Recompute the tree and the total from the slot weights once enough
+     * updates accumulated; only called when the weights are consistent
+     */
+    private void settle() {
+        if (updates <= REBUILD_PERIOD * capacity) {
+            return;
+        }
+        rebuild();
+    }
+
+    /**
+     * Recompute the tree and the total from the slot weights
+     */
+    private void rebuild() {
+        total = 0;
+        for (int i = 1; i <= capacity; i++) {
+            tree[i] = weight[i - 1];
+            total += weight[i - 1];
+        }
+        for (int i = 1; i <= capacity; i++) {
+            final int parent = i + (i & -i);
+            if (parent <= capacity) {
+                tree[parent] += tree[i];
+            }
+        }
+        updates = 0;
+    }
+
+    /**
+     * Find the slot in which a cumulative weight falls
+     * @param target A value in [0, total)
+     * @return The first slot whose prefix sum exceeds target
+     */
+    private int find(double target) {
+        int pos = 0;
+        for (int step = Integer.highestOneBit(capacity); step > 0; step >>= 1) {
+            final int next = pos + step;
+            if (next <= capacity && tree[next] <= target) {
+                pos = next;
+                target -= tree[next];
+            }
+        }
+        return Math.min(pos, size - 1);         // rounding can run past the last used slot
+    }
+
+    private void siftUp(int at) {
+        final int slot = heap[at];
+        while (at > 0) {
+            final int parent = (at - 1) >>> 1;
+            if (weight[heap[parent]] <= weight[slot]) {
+                break;
+            }
+            heap[at] = heap[parent];
+            heapIndex[heap[at]] = at;
+            at = parent;
+        }
+        heap[at] = slot;
+        heapIndex[slot] = at;
+    }
+
+    private void siftDown(int at) {
+        final int slot = heap[at];
+        while (true) {
+            int child = 2 * at + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && weight[heap[child + 1]] < weight[heap[child]]) {
+                child++;
+            }
+            if (weight[slot] <= weight[heap[child]]) {
+                break;
+            }
+            heap[at] = heap[child];
+            heapIndex[heap[at]] = at;
+            at = child;
+        }
+        heap[at] = slot;
+        heapIndex[slot] = at;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 The OpenNARS authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.opennars.storage;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * The non-empty levels of a bag, one bit per level
+ * <p>
+ * Lets a bag test a level without touching its item list, and find
+ * occupied levels by scanning words instead of levels.
+ */
+final class LevelBitmap implements Serializable {
+
+    /** bit i of word i/64 is set if level i holds an item */
+    private final long[] words;
+
+    LevelBitmap(final int levels) {
+        words = new long[(levels + 63) >>> 6];
+    }
+
+    void set(final int level) {
+        words[level >>> 6] |= 1L << level;
+    }
+
+    void clear(final int level) {
+        words[level >>> 6] &= ~(1L << level);
+    }
+
+    void clearAll() {
+        Arrays.fill(words, 0L);
+    }
+
+    /**
+     * @param level The level index
+     * @return Whether the level holds an item
+     */
+    boolean get(final int level) {
+        return (words[level >>> 6] & (1L << level)) != 0;
+    }
+
+    /**
+     * @param from The first level to consider
+     * @return The lowest occupied level at or above from, or -1 if there is none
+     */
+    int next(final int from) {
+        int w = from >>> 6;
+        if (w >= words.length) {
+            return -1;
+        }
+        long word = words[w] & (-1L << from);
+        while (word == 0) {
+            if (++w == words.length) {
+                return -1;
+            }
+            word = words[w];
+        }
+        return (w << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    /**
+     * @return The lowest occupied level, or -1 if all levels are empty
+     */
+    int lowest() {
+        return next(0);
+    }
+}
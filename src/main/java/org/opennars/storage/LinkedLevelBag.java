@@ -0,0 +1,492 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 The OpenNARS authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.opennars.storage;
+
+import com.google.common.collect.Iterators;
+import org.opennars.entity.Item;
+import org.opennars.main.Parameters;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Bag which distributes items into discrete levels (queues) according to priority,
+ * like {@link LevelBag}, but keeps every level as an intrusive doubly-linked list.
+ * <p>
+ * The name table maps each key to the list node of its item, so insertion,
+ * removal by key and FIFO take-out of a level all take constant time.
+ * Selection and overflow behave exactly as in {@link LevelBag}.
+ */
+public class LinkedLevelBag<Type extends Item<K>,K> implements Bag<Type,K> {
+
+    /** list node of an item, the handle through which the item is unlinked from its level */
+    private static final class Node<Type> {
+        Type item;
+        Node<Type> prev;
+        Node<Type> next;
+        /** level the node is currently linked into */
+        int level;
+
+        Node(final Type item) {
+            this.item = item;
+        }
+    }
+
+    /** distributor picks tried before seeking the next occupied level in the sequence */
+    private static final int MAX_PICKS = 8;
+
+    /** priority levels */
+    private final int TOTAL_LEVEL;
+    /** firing threshold */
+    private final int THRESHOLD;
+    /** shared DISTRIBUTOR that produce the probability distribution */
+    private final Distributor DISTRIBUTOR;
+    /** mapping from key to the node of the item */
+    private transient LinkedHashMap<K, Node<Type>> nameTable;
+    /** first node of each level, the next one to be taken out */
+    private transient Node<Type>[] levelHead;
+    /** last node of each level, where new items are appended */
+    private transient Node<Type>[] levelTail;
+    /** number of items on each level */
+    private transient int[] levelSize;
+    /** levels which currently hold items */
+    private transient LevelBitmap occupied;
+    /** defined in different bags */
+    private int capacity;
+    /** current sum of occupied level */
+    private int mass;
+    /** index to get next level, kept in individual objects */
+    private int levelIndex;
+    /** current take out level */
+    private int currentLevel;
+    /** maximum number of items to be taken out at current level */
+    private int currentCounter;
+
+    /* memory of the last put-back, the clock of forgetting left pending by it, see Item.settleForgetting */
+    private transient Memory forgetting;
+
+    public LinkedLevelBag(final int levels, final int capacity, Parameters narParameters) {
+        this(levels, capacity, (int) (narParameters.BAG_THRESHOLD * levels));
+    }
+
+    /** thresholdLevel = 0 disables "fire level completely" threshold effect */
+    public LinkedLevelBag(final int levels, final int capacity, final int thresholdLevel) {
+        this.TOTAL_LEVEL = levels;
+        DISTRIBUTOR = Distributor.get(TOTAL_LEVEL);
+        this.THRESHOLD = thresholdLevel;
+        this.capacity = capacity;
+        clear();
+    }
+
+    @Override
+    public void clear() {
+        initLevels();
+        currentLevel = TOTAL_LEVEL - 1;
+        levelIndex = capacity % TOTAL_LEVEL; // so that different bags start at different point
+        mass = 0;
+        currentCounter = 0;
+    }
+
+    private void initLevels() {
+        levelHead = new Node[TOTAL_LEVEL];
+        levelTail = new Node[TOTAL_LEVEL];
+        levelSize = new int[TOTAL_LEVEL];
+        occupied = new LevelBitmap(TOTAL_LEVEL);
+        nameTable = new LinkedHashMap<>();
+    }
+
+    /**
+     * Get the average priority of Items
+     * @return The average priority of Items in the bag
+     */
+    @Override
+    public float getAveragePriority() {
+        if (nameTable.isEmpty()) {
+            return 0.01f;
+        }
+        final float f = (float) mass / (nameTable.size() * TOTAL_LEVEL);
+        if (f > 1) {
+            return 1.0f;
+        }
+        return f;
+    }
+
+    /**
+     * Check if an item is in the bag
+     * @param it An item
+     * @return Whether the Item is in the Bag
+     */
+    @Override
+    public boolean contains(final Type it) {
+        return nameTable.containsKey(it.name());
+    }
+
+    /**
+     * Get an Item by key
+     * @param key The key of the Item
+     * @return The Item with the given key
+     */
+    @Override
+    public Type get(final K key) {
+        final Node<Type> node = nameTable.get(key);
+        return node != null ? node.item : null;
+    }
+
+    /**
+     * Add a new Item into the Bag
+     * @param newItem The new Item
+     * @return The overflow Item, or null if none was removed
+     */
+    @Override
+    public Type putIn(final Type newItem) {
+        final K newKey = newItem.name();
+        Node<Type> node = nameTable.get(newKey);
+        if (node != null) {                     // merge duplications
+            unlink(node);
+            settle(node.item);
+            newItem.merge(node.item);
+            node.item = newItem;
+        } else {
+            node = new Node<>(newItem);
+            nameTable.put(newKey, node);
+        }
+        final Node<Type> overflow = intoBase(node);  // put the (new or merged) item into a level
+        if (overflow != null) {                 // remove overflow
+            nameTable.remove(overflow.item.name());
+            return overflow.item;
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Put an item back into the Bag
+     * <p>
+     * The only place where the forgetting rate is applied
+     *
+     * @param oldItem The Item to put back
+     * @param m related memory
+     * @return the item which was removed, or null if none removed
+     */
+    @Override
+    public Type putBack(final Type oldItem, final float forgetCycles, final Memory m) {
+        oldItem.forget(forgetCycles, m);
+        forgetting = m;
+        return putIn(oldItem);
+    }
+
+    /**
+     * Apply the forgetting pending since the item was put back, once it is out of its level
+     * @param item The item taken out of its level
+     */
+    private void settle(final Type item) {
+        if (forgetting != null) {
+            item.settleForgetting(forgetting);
+        }
+    }
+
+    /**
+     * Choose an Item according to priority distribution and take it out of the Bag
+     * @return The selected Item
+     */
+    @Override
+    public Type takeOut() {
+        if (nameTable.isEmpty()) { // empty bag
+            return null;
+        }
+        if (emptyLevel(currentLevel) || (currentCounter == 0)) { // done with the current level
+            currentLevel = DISTRIBUTOR.pick(levelIndex);
+            levelIndex = DISTRIBUTOR.next(levelIndex);
+            int picks = 1;
+            while (emptyLevel(currentLevel)) {          // look for a non-empty level
+                if (picks++ == MAX_PICKS) {             // sparse bag, jump straight to where the walk would stop
+                    final int found = DISTRIBUTOR.seek(occupied, levelIndex);
+                    currentLevel = DISTRIBUTOR.pick(found);
+                    levelIndex = DISTRIBUTOR.next(found);
+                    break;
+                }
+                currentLevel = DISTRIBUTOR.pick(levelIndex);
+                levelIndex = DISTRIBUTOR.next(levelIndex);
+            }
+            if (currentLevel < THRESHOLD) { // for dormant levels, take one item
+                currentCounter = 1;
+            } else {                  // for active levels, take all current items
+                currentCounter = levelSize[currentLevel];
+            }
+        }
+        final Node<Type> selected = takeOutFirst(currentLevel); // take out the first item in the level
+        settle(selected.item);
+        if (currentLevel != getLevel(selected.item)) {
+            intoBase(selected);
+            return takeOut();
+        }
+        currentCounter--;
+        nameTable.remove(selected.item.name());
+        return selected.item;
+    }
+
+    /**
+     * Pick an item by key, then remove it from the bag
+     * @param key The given key
+     * @return The Item with the key
+     */
+    @Override
+    public Type pickOut(final K key) {
+        final Node<Type> picked = nameTable.remove(key);
+        if (picked == null) {
+            return null;
+        }
+        unlink(picked);
+        settle(picked.item);
+        return picked.item;
+    }
+
+    @Override
+    public Type pickOut(final Type val) {
+        return pickOut(val.name());
+    }
+
+    /**
+     * Check whether a level is empty
+     * @param n The level index
+     * @return Whether that level is empty
+     */
+    protected boolean emptyLevel(final int n) {
+        return !occupied.get(n);
+    }
+
+    /**
+     * Decide the put-in level according to priority
+     * @param item The Item to put in
+     * @return The put-in level
+     */
+    private int getLevel(final Type item) {
+        final float fl = item.getPriority() * TOTAL_LEVEL;
+        final int level = (int) Math.ceil(fl) - 1;
+        return (level < 0) ? 0 : level;     // cannot be -1
+    }
+
+    /**
+     * Link a node into the level of its item, and return the overflow
+     * @param node The node of the Item to put in
+     * @return The overflow node
+     */
+    private Node<Type> intoBase(final Node<Type> node) {
+        Node<Type> oldNode = null;
+        final int inLevel = getLevel(node.item);
+        if (nameTable.size() > capacity) {      // the bag is full
+            final int outLevel = occupied.lowest();
+            if (outLevel > inLevel) {           // ignore the item and exit
+                return node;
+            } else {                            // remove an old item in the lowest non-empty level
+                oldNode = takeOutFirst(outLevel);
+            }
+        }
+        link(node, inLevel);                    // FIFO
+        return oldNode;
+    }
+
+    /**
+     * Take out the first node of a level
+     * @param level The current level
+     * @return The first node
+     */
+    private Node<Type> takeOutFirst(final int level) {
+        final Node<Type> selected = levelHead[level];
+        unlink(selected);
+        return selected;
+    }
+
+    /**
+     * Append a node to the end of a level, then adjust mass
+     * @param node The node to be appended
+     * @param level The level
+     */
+    private void link(final Node<Type> node, final int level) {
+        node.level = level;
+        node.next = null;
+        node.prev = levelTail[level];
+        if (node.prev == null) {
+            levelHead[level] = node;
+            occupied.set(level);
+        } else {
+            node.prev.next = node;
+        }
+        levelTail[level] = node;
+        levelSize[level]++;
+        mass += (level + 1);
+    }
+
+    /**
+     * Remove a node from its level, then adjust mass
+     * @param node The node to be removed
+     */
+    private void unlink(final Node<Type> node) {
+        final int level = node.level;
+        if (node.prev == null) {
+            levelHead[level] = node.next;
+        } else {
+            node.prev.next = node.next;
+        }
+        if (node.next == null) {
+            levelTail[level] = node.prev;
+            if (node.prev == null) {
+                occupied.clear(level);
+            }
+        } else {
+            node.next.prev = node.prev;
+        }
+        node.prev = node.next = null;
+        levelSize[level]--;
+        mass -= (level + 1);
+    }
+
+    /**
+     * Collect Bag content into a String for display
+     */
+    @Override
+    public String toString() {
+        final StringBuilder buf = new StringBuilder(" ");
+        for (int i = TOTAL_LEVEL; i > 0; i--) {
+            if (!emptyLevel(i - 1)) {
+                buf.append("\n --- Level ").append(i).append(":\n ");
+                for (Node<Type> n = levelHead[i - 1]; n != null; n = n.next) {
+                    buf.append(n.item.toString()).append("\n ");
+                }
+            }
+        }
+        return buf.toString();
+    }
+
+    public String toStringLong() {
+        final StringBuilder buf = new StringBuilder(" BAG " + getClass().getSimpleName());
+        buf.append(" ").append(showSizes());
+        for (int i = TOTAL_LEVEL; i > 0; i--) {
+            if (!emptyLevel(i - 1)) {
+                buf.append("\n --- LEVEL ").append(i).append(":\n ");
+                for (Node<Type> n = levelHead[i - 1]; n != null; n = n.next) {
+                    buf.append(n.item.toStringLong()).append("\n ");
+                }
+            }
+        }
+        buf.append(">>>> end of Bag").append(getClass().getSimpleName());
+        return buf.toString();
+    }
+
+    String showSizes() {
+        final StringBuilder buf = new StringBuilder(" ");
+        int levels = 0;
+        for (final int size : levelSize) {
+            if (size > 0) {
+                levels++;
+                buf.append(size).append(" ");
+            }
+        }
+        return "Levels: " + Integer.toString(levels) + ", sizes: " + buf;
+    }
+
+    /**
+     * @return The sum of the level numbers (starting at 1) of the items, which grows with their priority
+     */
+    int getMass() {
+        return mass;
+    }
+
+    @Override
+    public int size() {
+        return nameTable.size();
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public List<Type> setCapacity(final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Bag capacity must be at least 1: " + capacity);
+        }
+        this.capacity = capacity;
+        final List<Type> evicted = new ArrayList<>();
+        while (nameTable.size() > capacity) {   // remove old items in the lowest non-empty level
+            final Node<Type> oldNode = takeOutFirst(occupied.lowest());
+            nameTable.remove(oldNode.item.name());
+            evicted.add(oldNode.item);
+        }
+        return evicted;
+    }
+
+    @Override
+    public Iterator<Type> iterator() {
+        return Iterators.transform(nameTable.values().iterator(), n -> n.item);
+    }
+
+    @Override
+    public List<Type> snapshot() {
+        final List<Type> copy = new ArrayList<>(nameTable.size());
+        for (final Node<Type> node : nameTable.values()) {
+            copy.add(node.item);
+        }
+        return copy;
+    }
+
+    @Override
+    public List<Type> topK(final int k) {
+        return Item.topByPriority(snapshot(), k);
+    }
+
+    /**
+     * The level lists are written level by level, as default serialization
+     * would recurse along every list
+     */
+    private void writeObject(final ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        for (int level = 0; level < TOTAL_LEVEL; level++) {
+            out.writeInt(levelSize[level]);
+            for (Node<Type> n = levelHead[level]; n != null; n = n.next) {
+                out.writeObject(n.item);
+            }
+        }
+    }
+
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        initLevels();
+        mass = 0; // recomputed by link
+        for (int level = 0; level < TOTAL_LEVEL; level++) {
+            final int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                final Node<Type> node = new Node<>((Type) in.readObject());
+                nameTable.put(node.item.name(), node);
+                link(node, level);
+            }
+        }
+    }
+}
@@ -23,6 +23,8 @@
  */
 package org.opennars.storage;
  
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.opennars.control.concept.ProcessTask;
 import org.opennars.control.DerivationContext;
 import org.opennars.control.GeneralInferenceControl;
@@ -51,8 +53,15 @@ import org.opennars.operator.Operator;
 import org.opennars.plugin.mental.Emotions;
 import org.opennars.main.Debug;
 
+import java.io.File;
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import org.opennars.entity.Stamp.BaseEntry;
 
 import static org.opennars.inference.BudgetFunctions.truthToQuality;
@@ -84,7 +93,13 @@ public class Memory implements Serializable, Iterable<Concept>, Resettable {
     public boolean allowExecution = true;
 
     public final long randomSeed = 1;
+    /* Random stream of the first inference worker, and of everything outside inference */
     public final Random randomNumber = new Random(randomSeed);
+
+    /* Random streams of the inference workers, split from the seed, the first one is randomNumber */
+    private final List<Random> randomStreams = new ArrayList<>(Collections.singletonList(randomNumber));
+    private final List<Long> randomStreamSeeds = new ArrayList<>(Collections.singletonList(randomSeed));
+    private transient ThreadLocal<Random> threadRandom;
     
     //todo make sense of this class and de-obfuscate
     public final Bag<Concept,Term> concepts;
@@ -98,6 +113,12 @@ public class Memory implements Serializable, Iterable<Concept>, Resettable {
     
     /* New tasks with novel composed terms, for delayed and selective processing*/
     public final Bag<Task<Term>,Sentence<Term>> novelTasks;
+
+    /* Tasks added by addNewTask from any thread, moved into novelTasks before the next selection */
+    private final Queue<Task> incomingTasks = new ConcurrentLinkedQueue<>();
+
+    /* Inference threads waiting for tasks in parkWhileIdle, also their monitor */
+    private final AtomicInteger parkedThreads = new AtomicInteger();
     
     /* Input event tasks that were either input events or derived sequences*/
     public final Bag<Task<Term>,Sentence<Term>> seq_current;
@@ -105,6 +126,29 @@ public class Memory implements Serializable, Iterable<Concept>, Resettable {
     
     //Boolean localInferenceMutex = false;
 
+    /* Tables of forgotten concepts, restored when their term is conceptualized again; null if disabled or closed,
+       see getSpill */
+    private transient volatile ConceptSpill spill;
+
+    /* TermLink templates shared by the concepts of a term, kept when the concept is forgotten; null if disabled */
+    private transient Cache<Term, List<TermLink>> termLinkTemplates;
+
+    /* Threads firing batches of concepts, created with the first batch */
+    private transient ForkJoinPool firingPool;
+
+    /* Cycles firing batches on the pool, it is shut down when the last one of them ends */
+    private transient int firingPoolUsers;
+    private transient boolean firingPoolShutdown;
+
+    /* Concepts taken out of the bag for a batch, still found by concept and conceptualize until they are put back */
+    private final Map<Term, Concept> firingConcepts = new ConcurrentHashMap<>();
+
+    /* Activations of the firing concepts by conceptualize, applied in order when they are put back */
+    private final Map<Term, List<BudgetValue>> firingActivations = new ConcurrentHashMap<>();
+
+    /* Cycles run so far, the clock of time-based forgetting; not reset, as budgets remember times of it */
+    private final AtomicLong cycleCount = new AtomicLong();
+
 
     boolean checked=false;
     boolean isjUnit=false;
@@ -123,6 +167,12 @@ public class Memory implements Serializable, Iterable<Concept>, Resettable {
         this.recent_operations = recent_operations;
         this.seq_current = seq_current;
         this.operators = new LinkedHashMap<>();
+        getSpill();
+        if (narParameters.TERM_LINK_TEMPLATE_CACHE_SIZE > 0) {
+            this.termLinkTemplates = CacheBuilder.newBuilder()
+                .maximumSize(narParameters.TERM_LINK_TEMPLATE_CACHE_SIZE)
+                .build();
+        }
         reset();
     }
     
@@ -131,7 +181,12 @@ public class Memory implements Serializable, Iterable<Concept>, Resettable {
         synchronized (concepts) {
             concepts.clear();
         }
+        final ConceptSpill conceptSpill = spill;
+        if (conceptSpill != null) {
+            conceptSpill.clear();
+        }
         synchronized (tasksMutex) {
+            incomingTasks.clear();
             novelTasks.clear();
         }
         synchronized(this.seq_current) {
@@ -142,7 +197,11 @@ public class Memory implements Serializable, Iterable<Concept>, Resettable {
         }
         recent_operations.clear();
         this.lastDecision = null;
-        randomNumber.setSeed(randomSeed);
+        synchronized (randomStreams) {
+            for (int i = 0; i < randomStreams.size(); i++) {
+                randomStreams.get(i).setSeed(randomStreamSeeds.get(i));
+            }
+        }
         event.emit(ResetEnd.class);
     }
 
@@ -156,11 +215,98 @@ public class Memory implements Serializable, Iterable<Concept>, Resettable {
      * @return a Concept or null
      */
     public Concept concept(final Term t) {
+        final Term term = CompoundTerm.replaceIntervals(t);
+        final Concept concept;
+        if (concepts.isConcurrent()) {
+            concept = concepts.get(term);
+        } else {
+            synchronized (concepts) {
+                concept = concepts.get(term);
+            }
+        }
+        if (concept == null && !firingConcepts.isEmpty()) {
+            return firingConcepts.get(term);
+        }
+        return concept;
+    }
+
+    /**
+     * The monitor to hold while working with the concept of a term in the concept bag,
+     * see {@link Bag#lockOf}
+     *
+     * @param term the name of a concept
+     * @return the monitor
+     */
+    private Object conceptsLock(final Term term) {
+        return concepts.lockOf(term);
+    }
+
+    /**
+     * Select a concept by priority and take it out of the concept bag
+     *
+     * @return the Concept, or null if there is none
+     */
+    public Concept takeOutConcept() {
+        if (concepts.isConcurrent()) {
+            return concepts.takeOut();
+        }
         synchronized (concepts) {
-            return concepts.get(CompoundTerm.replaceIntervals(t));
+            return concepts.takeOut();
         }
     }
 
+    /**
+     * Take a concept out of the concept bag to fire it in a batch, it is found by {@link #concept} and
+     * activated by {@link #conceptualize} while it is out, until {@link #putBackConcept} or {@link #conceptRemoved}
+     *
+     * @return the Concept, or null if the bag is empty
+     */
+    public Concept takeOutFiringConcept() {
+        final Concept concept = takeOutConcept();
+        if (concept != null) {
+            synchronized (conceptsLock(concept.getTerm())) {
+                firingConcepts.put(concept.getTerm(), concept);
+            }
+        }
+        return concept;
+    }
+
+    /**
+     * Put a concept taken out by {@link #takeOutConcept} back into the concept bag,
+     * it is dehydrated when its priority dropped below COLD_CONCEPT_PRIORITY, see {@link Concept#cool(float)}
+     *
+     * @param concept the Concept
+     * @param forgetCycles the forgetting rate
+     * @return the Concept removed to make room, or null
+     */
+    public Concept putBackConcept(final Concept concept, final float forgetCycles) {
+        final Concept displaced;
+        synchronized (conceptsLock(concept.getTerm())) {
+            if (!firingConcepts.isEmpty() && firingConcepts.remove(concept.getTerm(), concept)) {
+                final List<BudgetValue> activations = firingActivations.remove(concept.getTerm());
+                if (activations != null) {
+                    for (final BudgetValue activation : activations) {
+                        BudgetFunctions.activate(concept.budget, activation, BudgetFunctions.Activating.TaskLink);
+                    }
+                }
+            }
+            displaced = concepts.putBack(concept, forgetCycles, this);
+        }
+        if (displaced != null) {
+            conceptRemoved(displaced);
+        }
+        if (displaced != concept) {
+            //link capacities changed while it was out of the bag, and missed by setLinkCapacities
+            synchronized (concept) {
+                concept.setLinkCapacities(narParameters.TASK_LINK_BAG_SIZE, narParameters.TERM_LINK_BAG_SIZE);
+            }
+        }
+        if (displaced != concept && concept.getPriority() < narParameters.COLD_CONCEPT_PRIORITY) {
+            concept.cool(narParameters.COLD_CONCEPT_PRIORITY);
+        }
+        return displaced;
+    }
+
     /**
      * Get the Concept associated to a Term, or create it.
      * 
@@ -170,7 +316,8 @@ public class Memory implements Serializable, Iterable<Concept>, Resettable {
      * 
      * If failed to insert as a result of null bag, returns null
      *
-     * A displaced Concept resulting from insert is forgotten (but may be stored in optional  subconcept memory
+     * A displaced Concept resulting from insert is forgotten (but its tables are kept in the optional concept spill,
+     * see {@link ConceptSpill}, and restored when the concept is created again)
      * 
      * @param term indicating the concept
      * @return an existing Concept, or a new one, or null 
@@ -184,13 +331,30 @@ public class Memory implements Serializable, Iterable<Concept>, Resettable {
         final Concept displaced;
         Concept concept;
 
-        synchronized (concepts) {
-            concept = concepts.pickOut(term);
+        synchronized (conceptsLock(term)) {
+            final boolean inPlace = concepts instanceof UpdatableBag;
+            concept = inPlace ? concepts.get(term) : concepts.pickOut(term);
+
+            if (concept == null && !firingConcepts.isEmpty()) {
+                final Concept firing = firingConcepts.get(term);
+                if (firing != null) {
+                    //fired in the current batch, its budget is its firing's until it is put back, activated then
+                    final Term firingTerm = term;
+                    final BudgetValue activation = budget.clone();
+                    changeShared(() -> activateFiring(firing, firingTerm, activation));
+                    return firing;
+                }
+            }
 
             //see if concept is active
+            final boolean created = concept == null;
             if (concept == null) {
                 //create new concept, with the applied budget
-                concept = new Concept(budget, term, this);
+                concept = new Concept(budget, Term.intern(term), this);
+                final ConceptSpill conceptSpill = getSpill();
+                if (conceptSpill != null) {
+                    conceptSpill.restore(concept);
+                }
                 //if (memory.logic!=null)
                 //    memory.logic.CONCEPT_NEW.commit(term.getComplexity());
                 emit(Events.ConceptNew.class, concept);
@@ -205,7 +369,13 @@ public class Memory implements Serializable, Iterable<Concept>, Resettable {
                 return null;
             }
 
-            displaced = concepts.putBack(concept, cycles(narParameters.CONCEPT_FORGET_DURATIONS), this);
+            if (inPlace && !created) {
+                //reposition under the new budget, it stays in the bag
+                ((UpdatableBag<Concept,Term>) concepts).update(concept, cycles(narParameters.CONCEPT_FORGET_DURATIONS), this);
+                displaced = null;
+            } else {
+                displaced = concepts.putBack(concept, cycles(narParameters.CONCEPT_FORGET_DURATIONS), this);
+            }
         }
 
         if (displaced == null) {
@@ -223,19 +393,123 @@ public class Memory implements Serializable, Iterable<Concept>, Resettable {
         }
     }
     
+    /**
+     * Queue the activation of a concept fired in a batch for when it is put back
+     *
+     * @param firing the firing concept
+     * @param term the interval-free term of the concept
+     * @param activation the budget activating it
+     */
+    private void activateFiring(final Concept firing, final Term term, final BudgetValue activation) {
+        synchronized (conceptsLock(term)) {
+            if (firingConcepts.get(term) == firing) {
+                firingActivations.computeIfAbsent(term, t -> new ArrayList<>()).add(activation);
+                return;
+            }
+        }
+        synchronized (firing) { //put back in the meantime
+            BudgetFunctions.activate(firing.budget, activation, BudgetFunctions.Activating.TaskLink);
+        }
+    }
+
+    /**
+     * Change state shared by the concepts, deferred to the merge of the batch if called from the firing of a batch,
+     * see {@link DerivationContext#deferSharedChanges}
+     *
+     * @param change the change
+     */
+    private void changeShared(final Runnable change) {
+        final DerivationContext batch = DerivationContext.firingInBatch(this);
+        if (batch != null) {
+            batch.changeShared(change);
+        } else {
+            change.run();
+        }
+    }
+
     /* ---------- new task entries ---------- */
     /**
-     * add new task that waits to be processed in the next cycleMemory
+     * add new task that waits to be processed in the next cycleMemory,
+     * it is queued without locking and reaches novelTasks before the next selection of a novel task;
+     * from the firing of a batch it is kept with the tasks the firing derives
      */
     public void addNewTask(final Task t, final String reason) {
-        synchronized (tasksMutex) {
-            novelTasks.putIn(t);
+        final DerivationContext batch = DerivationContext.firingInBatch(this);
+        if (batch != null && batch.deferTask(t, reason)) {
+            return;
         }
+        incomingTasks.add(t);
+        wakeIdle();
       //  logic.TASK_ADD_NEW.commit(t.getPriority());
         emit(Events.TaskAdd.class, t, reason);
         output(t);
     }
 
+    /**
+     * add new tasks in one batch, see {@link #addNewTask}
+     *
+     * @param tasks the tasks, in the order they are to reach novelTasks
+     * @param reasons the reason of each task
+     */
+    public void addNewTasks(final List<Task> tasks, final List<String> reasons) {
+        incomingTasks.addAll(tasks);
+        wakeIdle();
+        for (int i = 0; i < tasks.size(); i++) {
+            final Task t = tasks.get(i);
+            emit(Events.TaskAdd.class, t, reasons.get(i));
+            output(t);
+        }
+    }
+
+    /**
+     * @return whether a cycle has nothing to work on: no novel tasks, and no concepts
+     */
+    public boolean isIdle() {
+        return incomingTasks.isEmpty() && novelTasks.size() == 0 && concepts.size() == 0;
+    }
+
+    /**
+     * Wait while the memory is idle, until a task is added or the time is up
+     *
+     * @param maxMillis the longest time to wait
+     * @return the milliseconds waited
+     */
+    public long parkWhileIdle(final long maxMillis) {
+        final long start = System.nanoTime();
+        synchronized (parkedThreads) {
+            parkedThreads.incrementAndGet();
+            try {
+                long left = maxMillis;
+                while (left > 0 && isIdle()) {
+                    parkedThreads.wait(left);
+                    left = maxMillis - (System.nanoTime() - start) / 1000000;
+                }
+            } catch (final InterruptedException e) {
+            } finally {
+                parkedThreads.decrementAndGet();
+            }
+        }
+        return (System.nanoTime() - start) / 1000000;
+    }
+
+    /* a task was added, so the count of parked threads is read after the task is visible, see parkWhileIdle */
+    private void wakeIdle() {
+        if (parkedThreads.get() > 0) {
+            synchronized (parkedThreads) {
+                parkedThreads.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Advance the cycle count over cycles skipped while idle
+     *
+     * @param cycles the cycles skipped
+     */
+    public void skipCycles(final long cycles) {
+        cycleCount.addAndGet(cycles);
+    }
+
     public static boolean isJUnitTest() {
         final StackTraceElement[] stackTrace = Thread.currentThread().getStackTrace();
         final StackTraceElement[] list = stackTrace;
@@ -344,20 +618,201 @@ public class Memory implements Serializable, Iterable<Concept>, Resettable {
     }
     
     public void conceptRemoved(final Concept c) {
+        if (!firingConcepts.isEmpty() && firingConcepts.remove(c.getTerm(), c)) {
+            firingActivations.remove(c.getTerm());
+        }
+        final ConceptSpill conceptSpill = getSpill();
+        if (conceptSpill != null) {
+            conceptSpill.store(c);
+        }
         emit(Events.ConceptForget.class, c);
     }
+
+    /**
+     * Get the TermLink templates of a compound term, prepared once and shared by all concepts of the term
+     *
+     * @param term the interval-free term of a concept
+     * @return an unmodifiable list of templates
+     */
+    public List<TermLink> getTermLinkTemplates(final CompoundTerm term) {
+        final Cache<Term, List<TermLink>> cache = termLinkTemplates;
+        List<TermLink> templates = cache == null ? null : cache.getIfPresent(term);
+        if (templates == null) {
+            templates = Collections.unmodifiableList(term.prepareComponentLinks());
+            if (cache != null) {
+                cache.put(term, templates);
+            }
+        }
+        return templates;
+    }
+
+    /**
+     * Make the calling thread use the random stream of an inference worker, so that a run with the same
+     * seed and threads draws the same random numbers in each thread
+     *
+     * @param worker the index of the worker, 0 for the stream of randomNumber
+     */
+    public void bindRandom(final int worker) {
+        synchronized (randomStreams) {
+            if (randomStreams.size() <= worker) {
+                final SplittableRandom splitter = new SplittableRandom(randomSeed);
+                for (int i = 1; i <= worker; i++) {
+                    final long seed = splitter.split().nextLong();
+                    if (i == randomStreams.size()) {
+                        randomStreamSeeds.add(seed);
+                        randomStreams.add(new Random(seed));
+                    }
+                }
+            }
+            if (threadRandom == null) {
+                threadRandom = new ThreadLocal<>();
+            }
+            threadRandom.set(randomStreams.get(worker));
+        }
+    }
+
+    /**
+     * @return the random stream of the calling thread: the one of the context firing in a batch, else the one
+     * bound with {@link #bindRandom}, randomNumber if it has none
+     */
+    public Random getRandom() {
+        final DerivationContext batch = DerivationContext.firingInBatch(this);
+        if (batch != null) {
+            return batch.random;
+        }
+        final ThreadLocal<Random> bound = threadRandom;
+        final Random random = bound == null ? null : bound.get();
+        return random != null ? random : randomNumber;
+    }
+
+    /**
+     * @return the store of forgotten concepts' tables, opened again after {@link #closeSpill()}, or null if
+     * CONCEPT_SPILL_FILE is not set
+     */
+    public ConceptSpill getSpill() {
+        final ConceptSpill open = spill;
+        if (open != null || narParameters.CONCEPT_SPILL_FILE.isEmpty()) {
+            return open;
+        }
+        synchronized (this) {
+            if (spill == null) {
+                try {
+                    spill = new ConceptSpill(new File(narParameters.CONCEPT_SPILL_FILE));
+                } catch (final IOException e) {
+                    throw new IllegalStateException("Could not open concept spill file " + narParameters.CONCEPT_SPILL_FILE, e);
+                }
+            }
+            return spill;
+        }
+    }
+
+    /**
+     * Close the spill file and stop its thread, the tables it kept are dropped
+     */
+    public synchronized void closeSpill() {
+        final ConceptSpill open = spill;
+        spill = null;
+        if (open != null) {
+            try {
+                open.close();
+            } catch (final IOException e) {
+                throw new IllegalStateException("Could not close concept spill file " + narParameters.CONCEPT_SPILL_FILE, e);
+            }
+        }
+    }
+
+    /**
+     * Change the capacity of the concept bag while running, forgetting the
+     * concepts of lowest priority when it shrinks
+     *
+     * @param capacity the new capacity
+     */
+    public void setConceptCapacity(final int capacity) {
+        final List<Concept> evicted;
+        if (concepts.isConcurrent()) {
+            evicted = concepts.setCapacity(capacity);
+        } else {
+            synchronized (concepts) {
+                evicted = concepts.setCapacity(capacity);
+            }
+        }
+        for (final Concept c : evicted) {
+            conceptRemoved(c);
+        }
+    }
+
+    /**
+     * Change the capacity of the link bags of all concepts while running;
+     * concepts created later get the new capacities too, the ones out of the bag when they are put back
+     *
+     * @param taskLinkCapacity the new capacity of the TaskLink bags
+     * @param termLinkCapacity the new capacity of the TermLink bags
+     */
+    public void setLinkCapacities(final int taskLinkCapacity, final int termLinkCapacity) {
+        narParameters.TASK_LINK_BAG_SIZE = taskLinkCapacity;
+        narParameters.TERM_LINK_BAG_SIZE = termLinkCapacity;
+        for (final Concept c : conceptsSnapshot()) {
+            synchronized (c) {
+                c.setLinkCapacities(taskLinkCapacity, termLinkCapacity);
+            }
+        }
+    }
     
     public void cycle(final Nar nar) {
+        cycle(nar, nar.narParameters.NOVEL_TASK_BAG_SELECTIONS, Math.max(1, nar.narParameters.CONCEPT_FIRING_BATCH));
+    }
+
+    /**
+     * A cycle doing the given amount of work, see {@link org.opennars.control.CycleScheduler}
+     *
+     * @param nar the reasoner
+     * @param novelTasks the novel tasks to select and process
+     * @param concepts the concepts to select and fire, in batches of CONCEPT_FIRING_BATCH if it is above 1
+     * @return the novel tasks processed, fewer than selected when novelTasks ran empty, and the time spent on them
+     */
+    public NovelTaskWork cycle(final Nar nar, final int novelTasks, final int concepts) {
     
+        cycleCount.incrementAndGet();
         event.emit(Events.CycleStart.class);
-        for(int i=0; i<nar.narParameters.NOVEL_TASK_BAG_SELECTIONS; i++) {
-            this.processNovelTask(nar.narParameters, nar);
+        final long start = System.nanoTime();
+        int processed = 0;
+        while (processed < novelTasks && this.processNovelTask(nar.narParameters, nar)) {
+            processed++;
         }
+        final NovelTaskWork novelTaskWork = new NovelTaskWork(processed, System.nanoTime() - start);
     //if(noResult()) //newTasks empty
-        GeneralInferenceControl.selectConceptForInference(this, nar.narParameters, nar);
+        final int batch = nar.narParameters.CONCEPT_FIRING_BATCH;
+        if (batch > 1) {
+            final ForkJoinPool pool = acquireFiringPool();
+            try {
+                for (int fired = 0; fired < concepts; fired += batch) {
+                    GeneralInferenceControl.selectConceptsForInference(this, nar.narParameters, nar, pool, Math.min(batch, concepts - fired));
+                }
+            } finally {
+                releaseFiringPool(pool);
+            }
+        } else {
+            for (int i = 0; i < concepts; i++) {
+                GeneralInferenceControl.selectConceptForInference(this, nar.narParameters, nar);
+            }
+        }
         
         event.emit(Events.CycleEnd.class);
         event.synch();
+        return novelTaskWork;
+    }
+
+    /**
+     * The novel tasks a cycle processed and the nanoseconds it spent on them
+     */
+    public static final class NovelTaskWork {
+        public final int tasks;
+        public final long nanos;
+
+        public NovelTaskWork(final int tasks, final long nanos) {
+            this.tasks = tasks;
+            this.nanos = nanos;
+        }
     }
 
     /**
@@ -369,6 +824,7 @@ public class Memory implements Serializable, Iterable<Concept>, Resettable {
     public void localInference(final Task task, Parameters narParameters, final Timable time) {
         //synchronized (localInferenceMutex) {
             final DerivationContext cont = new DerivationContext(this, narParameters, time);
+            cont.bufferTasks();
             cont.setCurrentTask(task);
             cont.setCurrentTerm(task.getTerm());
             cont.setCurrentConcept(conceptualize(task.budget, cont.getCurrentTerm()));
@@ -383,23 +839,81 @@ public class Memory implements Serializable, Iterable<Concept>, Resettable {
                 TemporalInferenceControl.eventInference(task, cont);
             }
 
+            cont.flushTasks();
+
             //memory.logic.TASK_IMMEDIATE_PROCESS.commit();
             emit(Events.TaskImmediateProcess.class, task, cont);
         //}
     }
 
+    private synchronized ForkJoinPool acquireFiringPool() {
+        if (firingPool == null) {
+            final int threads = narParameters.CONCEPT_FIRING_THREADS;
+            firingPool = new ForkJoinPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+            firingPoolShutdown = false;
+        }
+        firingPoolUsers++;
+        return firingPool;
+    }
+
+    private synchronized void releaseFiringPool(final ForkJoinPool pool) {
+        firingPoolUsers--;
+        if (firingPoolUsers == 0 && firingPoolShutdown && pool == firingPool) {
+            pool.shutdown();
+            firingPool = null;
+            firingPoolShutdown = false;
+        }
+    }
+
+    /**
+     * Stop the threads firing batches of concepts, the next batch starts new ones
+     *
+     * A cycle firing a batch in the meantime keeps the pool until it ends, the last one shuts it down
+     */
+    public synchronized void shutdownFiringPool() {
+        if (firingPool == null) {
+            return;
+        }
+        if (firingPoolUsers > 0) {
+            firingPoolShutdown = true;
+            return;
+        }
+        firingPool.shutdown();
+        firingPool = null;
+    }
+
     /**
      * Select a novel task to process
      *
+     * Only the selection holds the lock of novelTasks, the inference runs concurrently with
+     * the one of other threads, locking the concepts it changes
+     *
      * @param narParameters parameters for the Reasoner instance
      * @param time indirection to retrieve time
+     * @return whether there was a novel task to process
      */
-    public void processNovelTask(Parameters narParameters, final Timable time) {
+    public boolean processNovelTask(Parameters narParameters, final Timable time) {
+        final Task task;
         synchronized (tasksMutex) {
-            final Task task = novelTasks.takeOut();
-            if (task != null) {            
-                localInference(task, narParameters, time);
-            }
+            drainNewTasks();
+            task = novelTasks.takeOut();
+        }
+        if (task == null) {
+            return false;
+        }
+        localInference(task, narParameters, time);
+        return true;
+    }
+
+    /**
+     * Move the tasks queued by addNewTask into novelTasks, in the order they were added
+     *
+     * Must be called holding tasksMutex
+     */
+    private void drainNewTasks() {
+        Task t;
+        while ((t = incomingTasks.poll()) != null) {
+            novelTasks.putIn(t);
         }
     }
 
@@ -418,16 +932,70 @@ public class Memory implements Serializable, Iterable<Concept>, Resettable {
 
     private long currentStampSerial = 0;
     public BaseEntry newStampSerial() {
+        final DerivationContext batch = DerivationContext.firingInBatch(this);
+        if (batch != null) {
+            return new BaseEntry(this.narId, batch.nextStampSerial());
+        }
         return new BaseEntry(this.narId, currentStampSerial++);
-    }   
+    }
+
+    /**
+     * @return the serial of the next stamp
+     */
+    public long getStampSerial() {
+        return currentStampSerial;
+    }
+
+    /**
+     * Skip stamp serials handed out by the firings of a batch, see {@link DerivationContext#deferSharedChanges}
+     *
+     * @param serials the number of serials to skip
+     */
+    public void skipStampSerials(final long serials) {
+        currentStampSerial += serials;
+    }
+
+    /**
+     * @return the number of cycles run so far
+     */
+    public long getCycleCount() {
+        return cycleCount.get();
+    }
 
     /** converts durations to cycles */
     public final float cycles(final double durations) {
         return narParameters.DURATION * (float) durations;
     }
 
+    /**
+     * Copy the concepts in memory, holding the concept bag only for the copy
+     *
+     * @return the concepts, in no particular order
+     */
+    public List<Concept> conceptsSnapshot() {
+        if (concepts.isConcurrent()) {
+            return concepts.snapshot();
+        }
+        synchronized (concepts) {
+            return concepts.snapshot();
+        }
+    }
+
+    /**
+     * Get the concepts of highest priority without taking them out of the bag
+     *
+     * @param k the maximum number of concepts
+     * @return up to k concepts, highest priority first
+     */
+    public List<Concept> hottestConcepts(final int k) {
+        return Item.topByPriority(conceptsSnapshot(), k);
+    }
+
+    /**
+     * Iterates a snapshot of the concepts, safe while inference runs
+     */
     @Override
     public Iterator<Concept> iterator() {
-        return concepts.iterator();
+        return conceptsSnapshot().iterator();
     }
 }
@@ -0,0 +1,43 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2018 The OpenNARS authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.opennars.storage;
+
+import org.opennars.entity.Item;
+
+/**
+ * A Bag which can reposition an item after its priority changed without
+ * taking it out and putting it back
+ */
+public interface UpdatableBag<Type extends Item<K>,K> extends Bag<Type,K> {
+
+    /**
+     * Apply forgetting to an item in the bag and reposition it under its new
+     * priority; the in-place equivalent of pickOut followed by putBack
+     * @param item The Item, whose budget may have been changed since it was put in
+     * @param forgetCycles The forgetting rate
+     * @param m The memory the bag belongs to
+     * @return The item, or null if it is not in the bag
+     */
+    Type update(Type item, float forgetCycles, Memory m);
+}
@@ -54,7 +54,8 @@
  * </p>
  *
  * <p>
- * All classes in package <tt>org.opennars.storage</tt> extend <tt>Bag</tt>.
+ * The bags in package <tt>org.opennars.storage</tt> implement <tt>Bag</tt>; which implementation each bag of the
+ * memory uses is chosen in the configuration.
  * </p>
  *
  * <p>
@@ -0,0 +1,114 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2018 The OpenNARS authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.opennars.core;
+
+import org.junit.Test;
+import org.opennars.entity.ArrayTermLink;
+import org.opennars.entity.BudgetArrays;
+import org.opennars.entity.BudgetValue;
+import org.opennars.entity.TermLink;
+import org.opennars.language.Term;
+import org.opennars.main.Nar;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Links keeping their budget in a BudgetArrays store must behave exactly like links owning a BudgetValue
+ */
+public class BudgetArraysTest {
+
+    @Test
+    public void testSameAsOwnBudget() throws Exception {
+        final Nar nar = new Nar();
+        final BudgetArrays store = new BudgetArrays(2, nar.narParameters);
+        final TermLink template = new TermLink(TermLink.COMPOUND, new Term("a"), 0);
+        final List<TermLink> owned = new ArrayList<>();
+        final List<TermLink> stored = new ArrayList<>();
+        final Random rnd = new Random(1);
+
+        for (int i = 0; i < 20000; i++) {
+            final int op = rnd.nextInt(10);
+            if (op == 0 || owned.isEmpty()) {
+                final BudgetValue v = new BudgetValue(rnd.nextFloat(), rnd.nextFloat(), rnd.nextFloat(), nar.narParameters);
+                owned.add(new TermLink(new Term("b"), template, v));
+                stored.add(new ArrayTermLink(new Term("b"), template, v, store));
+                continue;
+            }
+            final int k = rnd.nextInt(owned.size());
+            final TermLink a = owned.get(k);
+            final TermLink b = stored.get(k);
+            final float v = rnd.nextFloat();
+            switch (op) {
+                case 1: a.incPriority(v); b.incPriority(v); break;
+                case 2: a.decPriority(v); b.decPriority(v); break;
+                case 3: a.incDurability(v); b.incDurability(v); break;
+                case 4: a.decDurability(v); b.decDurability(v); break;
+                case 5: a.setQuality(v); b.setQuality(v); break;
+                case 6:
+                    nar.narParameters.LAZY_FORGETTING = rnd.nextBoolean();
+                    nar.cycles(1);
+                    a.forget(1 + v * 10, nar.memory);
+                    b.forget(1 + v * 10, nar.memory);
+                    break;
+                case 7: {
+                    final BudgetValue d = new BudgetValue(rnd.nextFloat(), rnd.nextFloat(), rnd.nextFloat(), nar.narParameters);
+                    a.merge(new TermLink(new Term("b"), template, d));
+                    b.merge(new ArrayTermLink(new Term("b"), template, d, store));
+                    break;
+                }
+                default:
+                    owned.remove(k);
+                    stored.remove(k).release();
+                    assertSame(a, b);   //released links keep their budget
+            }
+            assertSame(a, b);
+            assertEquals(stored.size(), store.size());
+        }
+    }
+
+    @Test
+    public void testBudgetIsACopy() throws Exception {
+        final Nar nar = new Nar();
+        final BudgetArrays store = new BudgetArrays(2, nar.narParameters);
+        final TermLink template = new TermLink(TermLink.COMPOUND, new Term("a"), 0);
+        final TermLink link = new ArrayTermLink(new Term("b"), template, new BudgetValue(0.5f, 0.5f, 0.5f, nar.narParameters), store);
+        link.getBudget().setPriority(0.9f);
+        assertEquals(0.5f, link.getPriority(), 0.0f);
+        link.setPriority(0.9f);
+        assertEquals(0.9f, link.getBudget().getPriority(), 0.0f);
+    }
+
+    private static void assertSame(final TermLink a, final TermLink b) {
+        assertEquals(a.getPriority(), b.getPriority(), 0.0f);
+        assertEquals(a.getDurability(), b.getDurability(), 0.0f);
+        assertEquals(a.getQuality(), b.getQuality(), 0.0f);
+        assertEquals(a.aboveThreshold(), b.aboveThreshold());
+        assertEquals(a.getBudget().getLastForgetTime(), b.getBudget().getLastForgetTime());
+        assertEquals(a.toString(), b.toString());
+    }
+}
@@ -0,0 +1,183 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2018 The OpenNARS authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.opennars.core;
+
+import org.junit.Test;
+import org.opennars.entity.Concept;
+import org.opennars.entity.Task;
+import org.opennars.entity.TaskLink;
+import org.opennars.entity.TermLink;
+import org.opennars.io.Narsese;
+import org.opennars.main.Nar;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * A dehydrated concept gets its links back when its bags are accessed again
+ */
+public class ColdConceptTest {
+
+    @Test
+    public void testDehydrateKeepsLinks() throws Exception {
+        final Nar nar = new Nar();
+        nar.addInput("<(&&,a,b) --> c>.");
+        nar.cycles(5);
+        final Concept concept = nar.memory.concept(new Narsese(nar).parseTerm("<(&&,a,b) --> c>"));
+        final Set<String> taskLinks = new HashSet<>();
+        for (final TaskLink link : concept.getTaskLinks()) {
+            taskLinks.add(link.toString());
+        }
+        final Set<String> termLinks = new HashSet<>();
+        for (final TermLink link : concept.getTermLinks()) {
+            termLinks.add(link.toString());
+        }
+        final int templates = concept.getTermLinkTemplates().size();
+        final float quality = concept.getQuality();
+        assertTrue(taskLinks.size() > 0);
+        assertTrue(termLinks.size() > 0);
+
+        concept.dehydrate();
+        assertTrue(concept.isCold());
+        assertEquals(quality, concept.getQuality(), 0.0f);
+        assertTrue(concept.toStringLong().contains("termLinks:" + termLinks.size()));
+
+        final Set<String> rebuilt = new HashSet<>();
+        for (final TaskLink link : concept.getTaskLinks()) {
+            rebuilt.add(link.toString());
+        }
+        assertFalse(concept.isCold());
+        assertEquals(taskLinks, rebuilt);
+        rebuilt.clear();
+        for (final TermLink link : concept.getTermLinks()) {
+            rebuilt.add(link.toString());
+        }
+        assertEquals(termLinks, rebuilt);
+        assertEquals(templates, concept.getTermLinkTemplates().size());
+    }
+
+    @Test
+    public void testDehydrateKeepsWeakLinks() throws Exception {
+        final Nar nar = new Nar();
+        nar.addInput("<(&&,a,b) --> c>.");
+        nar.cycles(5);
+        final Concept concept = nar.memory.concept(new Narsese(nar).parseTerm("<(&&,a,b) --> c>"));
+        for (final TermLink link : concept.getTermLinks()) {
+            link.setPriority(0.0f);
+        }
+        final int taskLinks = concept.getTaskLinks().size();
+        final int termLinks = concept.getTermLinks().size();
+
+        concept.dehydrate();
+        assertEquals(taskLinks, concept.getTaskLinks().size());
+        assertEquals(termLinks, concept.getTermLinks().size());
+    }
+
+    @Test
+    public void testEmptyColdConcept() throws Exception {
+        final Nar nar = new Nar();
+        nar.addInput("<(&&,a,b) --> c>.");
+        nar.cycles(5);
+        final Concept concept = nar.memory.concept(new Narsese(nar).parseTerm("<(&&,a,b) --> c>"));
+        while (concept.getTermLinks().takeOut() != null) {
+        }
+        while (concept.getTaskLinks().takeOut() != null) {
+        }
+
+        concept.dehydrate();
+        assertTrue(concept.toStringLong().contains("termLinks:0"));
+        assertTrue(concept.toStringLong().contains("taskLinks:0"));
+        //empty tables are dropped, and rebuilt when changed
+        assertTrue(concept.questions == Collections.<Task>emptyList());
+        assertTrue(concept.desires == Collections.<Task>emptyList());
+        nar.addInput("<(&&,a,b) --> c>?");
+        nar.cycles(1);
+        assertEquals(1, concept.questions.size());
+    }
+
+    @Test
+    public void testDehydrateKeepsTopBeliefs() throws Exception {
+        final Map<String, Object> overrides = new HashMap<>();
+        overrides.put("COLD_CONCEPT_BELIEFS", 1);
+        final Nar nar = new Nar(overrides);
+        nar.addInput("<a --> b>. %1.0;0.9%");
+        nar.addInput("<a --> b>. %0.0;0.5%");
+        nar.addInput("<a --> b>. %0.8;0.6%");
+        nar.cycles(5);
+        final Concept concept = nar.memory.concept(new Narsese(nar).parseTerm("<a --> b>"));
+        assertTrue(concept.beliefs.size() > 1);
+        final Task top = concept.beliefs.get(0);
+
+        concept.dehydrate();
+        assertEquals(1, concept.beliefs.size());
+        assertTrue(concept.beliefs.get(0) == top);
+    }
+
+    @Test
+    public void testRewarmedConceptStaysHot() throws Exception {
+        final Nar nar = new Nar();
+        nar.addInput("<a --> b>.");
+        nar.cycles(5);
+        final Concept concept = nar.memory.concept(new Narsese(nar).parseTerm("<a --> b>"));
+        concept.setPriority(0.3f);
+
+        concept.cool(0.4f);
+        assertTrue(concept.isCold());
+        concept.getTaskLinks();
+        assertFalse(concept.isCold());
+
+        //rebuilt, it goes cold again only below half of the cold priority
+        concept.cool(0.4f);
+        assertFalse(concept.isCold());
+        concept.setPriority(0.1f);
+        concept.cool(0.4f);
+        assertTrue(concept.isCold());
+    }
+
+    @Test
+    public void testColdConceptsKeepReasoning() throws Exception {
+        final Map<String, Object> overrides = new HashMap<>();
+        overrides.put("COLD_CONCEPT_PRIORITY", 1.0f);
+        final Nar nar = new Nar(overrides);
+        nar.addInput("<a --> b>.");
+        nar.addInput("<b --> c>.");
+        nar.cycles(50);
+        int cold = 0;
+        for (final Concept concept : nar.memory) {
+            if (concept.isCold()) {
+                cold++;
+            }
+        }
+        assertTrue(cold > 0);
+        final Concept derived = nar.memory.concept(new Narsese(nar).parseTerm("<a --> c>"));
+        assertTrue(derived != null && derived.beliefs.size() > 0);
+    }
+}
@@ -0,0 +1,194 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2018 The OpenNARS authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.opennars.core;
+
+import org.junit.Test;
+import org.opennars.control.DerivationContext;
+import org.opennars.entity.Concept;
+import org.opennars.entity.Task;
+import org.opennars.io.Narsese;
+import org.opennars.io.events.Events;
+import org.opennars.main.Nar;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Concepts fired in parallel batches keep deriving, and give the results of a single firing thread
+ * however the firings interleave
+ */
+public class ConceptFiringBatchTest {
+
+    private static Nar batchNar(final int threads) throws Exception {
+        final Map<String, Object> overrides = new HashMap<>();
+        overrides.put("CONCEPT_FIRING_BATCH", 4);
+        overrides.put("CONCEPT_FIRING_THREADS", threads);
+        final Nar nar = new Nar(overrides);
+        nar.addInput("<a --> b>.");
+        nar.addInput("<b --> c>.");
+        nar.addInput("<c --> d>.");
+        return nar;
+    }
+
+    private static List<String> beliefs(final Nar nar) {
+        final List<String> beliefs = new ArrayList<>();
+        for (final Concept concept : nar.memory) {
+            for (final Task belief : concept.beliefs) {
+                beliefs.add(belief.sentence.toString());
+            }
+        }
+        beliefs.sort(null);
+        return beliefs;
+    }
+
+    @Test
+    public void testBatchDerives() throws Exception {
+        final Nar nar = batchNar(2);
+        nar.cycles(100);
+        final Concept derived = nar.memory.concept(new Narsese(nar).parseTerm("<a --> c>"));
+        assertTrue(derived != null && derived.beliefs.size() > 0);
+    }
+
+    @Test
+    public void testBatchReproducible() throws Exception {
+        final Nar first = batchNar(1);
+        first.cycles(100);
+        final Nar second = batchNar(1);
+        second.cycles(100);
+        assertEquals(beliefs(first), beliefs(second));
+    }
+
+    @Test
+    public void testBatchReproducibleAcrossThreads() throws Exception {
+        final List<String> single = run(batchNar(1));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(single, run(batchNar(4)));
+        }
+    }
+
+    @Test
+    public void testBatchReproducibleWhenInterleaved() throws Exception {
+        final Nar first = batchNar(1);
+        final List<String> single = added(first);
+        runRevising(first);
+        final Nar nar = batchNar(4);
+        final List<String> parallel = added(nar);
+        final Thread cycling = Thread.currentThread();
+        //firings of the current cycle in the order of their steps, each step parks to let the others run
+        final List<Object> steps = Collections.synchronizedList(new ArrayList<>());
+        final boolean[] interleaved = new boolean[1];
+        nar.memory.event.on(Events.TermLinkSelect.class, (event, args) -> {
+            if (Thread.currentThread() != cycling) {
+                steps.add(args[2]);
+                LockSupport.parkNanos(100_000);
+            }
+        });
+        nar.memory.event.on(Events.CycleEnd.class, (event, args) -> {
+            synchronized (steps) {
+                interleaved[0] |= interleaved(steps);
+                steps.clear();
+            }
+        });
+        runRevising(nar);
+        assertTrue(interleaved[0]);
+        assertEquals(single, parallel);
+    }
+
+    /** the tasks added to memory from now on, with their budgets, in the order they are added */
+    private static List<String> added(final Nar nar) {
+        final List<String> added = Collections.synchronizedList(new ArrayList<>());
+        nar.memory.event.on(Events.TaskAdd.class, (event, args) -> added.add(args[0].toString()));
+        return added;
+    }
+
+    /** a firing steps, then another one, then the first one again */
+    private static boolean interleaved(final List<Object> steps) {
+        for (int i = 0; i < steps.size(); i++) {
+            final Object firing = steps.get(i);
+            final int last = steps.lastIndexOf(firing);
+            for (int j = i + 1; j < last; j++) {
+                if (steps.get(j) != firing) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Test
+    public void testSharedTaskChangedThroughContext() throws Exception {
+        final Nar nar = batchNar(1);
+        nar.cycles(1);
+        final Task shared = nar.memory.concept(new Narsese(nar).parseTerm("<a --> b>")).beliefs.get(0);
+        final float priority = shared.getPriority();
+        final DerivationContext nal = new DerivationContext(nar.memory, nar.narParameters, nar);
+        nal.deferSharedChanges(0, 1, Collections.emptyMap());
+        nal.fireInBatch(() -> {
+            try {
+                shared.decPriority(0.5f);
+                fail("a shared task changed in place");
+            } catch (final IllegalStateException e) {
+                //expected
+            }
+            final Task derived = new Task(shared.sentence, shared.budget, Task.EnumType.DERIVED);
+            derived.decPriority(0.5f);
+            nal.decBudget(shared, 0.5f, 1.0f);
+            return derived;
+        });
+        assertEquals(priority, shared.getPriority(), 0.0f);
+        nal.applySharedChanges();
+        assertEquals(priority * 0.5f, shared.getPriority(), 1e-6f);
+    }
+
+    /** run with questions and a shared component, so the concepts of a batch share tasks and concepts */
+    private static List<String> run(final Nar nar) {
+        nar.addInput("<d --> e>.");
+        nar.addInput("<a --> b>. %0.8;0.5%");
+        nar.addInput("<a --> e>?");
+        nar.addInput("<(&&,<a --> b>,<b --> c>) ==> <a --> c>>.");
+        nar.cycles(200);
+        return beliefs(nar);
+    }
+
+    /** run with conflicting beliefs and goals, so the firings of a batch revise and solve tasks they share */
+    private static List<String> runRevising(final Nar nar) {
+        nar.addInput("<a --> b>. %0.2;0.6%");
+        nar.addInput("<b --> c>. %0.3;0.6%");
+        nar.addInput("<a --> c>. %0.9;0.4%");
+        nar.addInput("<a --> d>!");
+        nar.addInput("<a --> c>?");
+        nar.addInput("<b --> d>?");
+        nar.addInput("<(&&,<$x --> b>,<$x --> c>) ==> <$x --> d>>.");
+        nar.cycles(200);
+        return beliefs(nar);
+    }
+}
@@ -0,0 +1,146 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2018 The OpenNARS authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.opennars.core;
+
+import org.junit.Test;
+import org.opennars.entity.BudgetValue;
+import org.opennars.entity.Concept;
+import org.opennars.entity.Task;
+import org.opennars.io.Narsese;
+import org.opennars.language.Term;
+import org.opennars.main.Nar;
+import org.opennars.storage.ConceptSpill;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * A forgotten concept's beliefs come back from the spill file when its term is conceptualized again
+ */
+public class ConceptSpillTest {
+
+    @Test
+    public void testRestoreForgottenBeliefs() throws Exception {
+        final File file = File.createTempFile("concepts", ".spill");
+        file.deleteOnExit();
+        final Map<String, Object> overrides = new HashMap<>();
+        overrides.put("CONCEPT_SPILL_FILE", file.getPath());
+        final Nar nar = new Nar(overrides);
+        final ConceptSpill spill = nar.memory.getSpill();
+
+        nar.addInput("<a --> b>.");
+        nar.addInput("<a --> b>!");
+        nar.cycles(5);
+        final Term term = new Narsese(nar).parseTerm("<a --> b>");
+        final Concept forgotten = nar.memory.concept(term);
+        assertTrue(forgotten.beliefs.size() > 0);
+        assertTrue(forgotten.desires.size() > 0);
+
+        nar.memory.concepts.pickOut(term);
+        nar.memory.conceptRemoved(forgotten);
+        assertEquals(1, spill.size());
+        spill.flush();
+        assertEquals(1, spill.size());
+
+        final Concept restored = nar.memory.conceptualize(new BudgetValue(0.5f, 0.5f, 0.5f, nar.narParameters), term);
+        assertTrue(restored != forgotten);
+        assertEquals(0, spill.size());
+        assertEquals(forgotten.beliefs.size(), restored.beliefs.size());
+        assertEquals(forgotten.desires.size(), restored.desires.size());
+        for (int i = 0; i < forgotten.beliefs.size(); i++) {
+            final Task before = forgotten.beliefs.get(i);
+            final Task after = restored.beliefs.get(i);
+            assertTrue(before != after);
+            assertEquals(before.sentence, after.sentence);
+            assertEquals(before.sentence.truth, after.sentence.truth);
+            assertEquals(before.getPriority(), after.getPriority(), 0.0f);
+            assertEquals(before.getDurability(), after.getDurability(), 0.0f);
+        }
+        nar.cycles(5);
+
+        nar.reset();
+        assertEquals(0, spill.size());
+
+        //records are written over the cleared ones
+        nar.addInput("<a --> b>.");
+        nar.cycles(5);
+        final Concept again = nar.memory.concept(term);
+        nar.memory.concepts.pickOut(term);
+        nar.memory.conceptRemoved(again);
+        spill.flush();
+        final Concept restoredAgain = nar.memory.conceptualize(new BudgetValue(0.5f, 0.5f, 0.5f, nar.narParameters), term);
+        assertEquals(again.beliefs.size(), restoredAgain.beliefs.size());
+        spill.close();
+    }
+
+    @Test
+    public void testRestoreBeforeWritten() throws Exception {
+        final File file = File.createTempFile("concepts", ".spill");
+        file.deleteOnExit();
+        final Map<String, Object> overrides = new HashMap<>();
+        overrides.put("CONCEPT_SPILL_FILE", file.getPath());
+        final Nar nar = new Nar(overrides);
+        final ConceptSpill spill = nar.memory.getSpill();
+
+        nar.addInput("<a --> b>.");
+        nar.cycles(5);
+        final Term term = new Narsese(nar).parseTerm("<a --> b>");
+        final Concept forgotten = nar.memory.concept(term);
+        //holding the monitor of the forgotten concept, the tables are copied once it is released
+        final Concept restored;
+        synchronized (forgotten) {
+            nar.memory.concepts.pickOut(term);
+            nar.memory.conceptRemoved(forgotten);
+            restored = nar.memory.conceptualize(new BudgetValue(0.5f, 0.5f, 0.5f, nar.narParameters), term);
+        }
+        spill.flush();
+        assertEquals(0, spill.size());
+        assertEquals(forgotten.beliefs.size(), restored.beliefs.size());
+        assertTrue(restored.beliefs.get(0).sentence.equals(forgotten.beliefs.get(0).sentence));
+        nar.stop();
+    }
+
+    @Test
+    public void testClosedOnStop() throws Exception {
+        final File file = File.createTempFile("concepts", ".spill");
+        file.deleteOnExit();
+        final Map<String, Object> overrides = new HashMap<>();
+        overrides.put("CONCEPT_SPILL_FILE", file.getPath());
+        final Nar nar = new Nar(overrides);
+        final ConceptSpill spill = nar.memory.getSpill();
+        nar.stop();
+        //a closed spill ignores forgotten concepts, the memory opens a new one
+        nar.addInput("<a --> b>.");
+        nar.cycles(5);
+        final Concept forgotten = nar.memory.concept(new Narsese(nar).parseTerm("<a --> b>"));
+        spill.store(forgotten);
+        assertEquals(0, spill.size());
+        assertTrue(nar.memory.getSpill() != spill);
+        nar.stop();
+    }
+}
@@ -0,0 +1,98 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2018 The OpenNARS authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.opennars.core;
+
+import org.junit.Test;
+import org.opennars.control.CycleScheduler;
+import org.opennars.main.Nar;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The scheduler scales the work per cycle to the measured costs and the cycle period
+ */
+public class CycleSchedulerTest {
+
+    @Test
+    public void testQuotasFollowCosts() throws Exception {
+        final Map<String, Object> overrides = new HashMap<>();
+        overrides.put("CYCLE_DEADLINE_MS", 10);
+        final Nar nar = new Nar(overrides);
+        final CycleScheduler scheduler = new CycleScheduler(nar.narParameters);
+        assertEquals(nar.narParameters.NOVEL_TASK_BAG_SELECTIONS, scheduler.getNovelTaskQuota());
+        assertEquals(1, scheduler.getConceptQuota());
+
+        //10us per novel task and 1ms per concept: the 100:1 work takes 2ms, 5 times of it fit into 10ms
+        for (int i = 0; i < 10; i++) {
+            final int novel = scheduler.getNovelTaskQuota();
+            final int fired = scheduler.getConceptQuota();
+            scheduler.record(novel, novel * 10000L, fired, fired * 1000000L, false);
+        }
+        assertEquals(500, scheduler.getNovelTaskQuota());
+        assertEquals(5, scheduler.getConceptQuota());
+
+        //ten times as expensive, the work shrinks at once
+        scheduler.record(500, 50000000L, 5, 50000000L, true);
+        assertTrue(scheduler.getNovelTaskQuota() < 500);
+        assertEquals(1, scheduler.getDeadlineMisses());
+    }
+
+    @Test
+    public void testIdleCyclesKeepQuota() throws Exception {
+        final Map<String, Object> overrides = new HashMap<>();
+        overrides.put("CYCLE_DEADLINE_MS", 10);
+        final Nar nar = new Nar(overrides);
+        final CycleScheduler scheduler = new CycleScheduler(nar.narParameters);
+        final int initial = scheduler.getNovelTaskQuota();
+
+        //cycles without novel tasks measure no cost per task and grow no quota
+        for (int i = 0; i < 10; i++) {
+            scheduler.record(0, 1000L, 1, 100000L, false);
+        }
+        assertEquals(initial, scheduler.getNovelTaskQuota());
+
+        //nor does a run of an idle reasoner
+        nar.cycles(10);
+        assertEquals(initial, nar.getScheduler().getNovelTaskQuota());
+    }
+
+    @Test
+    public void testRatesOfRun() throws Exception {
+        final Map<String, Object> overrides = new HashMap<>();
+        overrides.put("CYCLE_DEADLINE_MS", 5);
+        final Nar nar = new Nar(overrides);
+        nar.addInput("<a --> b>.");
+        nar.addInput("<b --> c>.");
+        nar.cycles(20);
+        final CycleScheduler scheduler = nar.getScheduler();
+        assertTrue(scheduler.getCyclesPerSecond() > 0);
+        assertTrue(scheduler.getNovelTasksPerSecond() > 0);
+        assertTrue(scheduler.getConceptsPerSecond() > 0);
+        assertTrue(scheduler.getConceptQuota() >= 1);
+    }
+}
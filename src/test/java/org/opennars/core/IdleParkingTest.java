@@ -0,0 +1,71 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2018 The OpenNARS authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.opennars.core;
+
+import org.junit.Test;
+import org.opennars.main.Nar;
+import org.opennars.storage.Memory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Inference threads park while there is nothing to do, and input wakes them
+ */
+public class IdleParkingTest {
+
+    @Test
+    public void testInputWakesParkedThread() throws Exception {
+        final Nar nar = new Nar();
+        final Memory memory = nar.memory;
+        assertTrue(memory.isIdle());
+        final long[] parked = new long[1];
+        final Thread thread = new Thread(() -> parked[0] = memory.parkWhileIdle(10000));
+        thread.start();
+        Thread.sleep(50);
+        nar.addInput("<a --> b>.");
+        thread.join(5000);
+        assertFalse(thread.isAlive());
+        assertTrue(parked[0] < 5000);
+        assertFalse(memory.isIdle());
+        //with work to do the thread does not park
+        assertTrue(memory.parkWhileIdle(10000) < 1000);
+    }
+
+    @Test
+    public void testStepClockAdvancesWhileParked() throws Exception {
+        final Map<String, Object> overrides = new HashMap<>();
+        overrides.put("IDLE_PARK_MS", 50);
+        final Nar nar = new Nar(overrides);
+        nar.start(10);
+        Thread.sleep(300);
+        nar.stop();
+        //parked nearly all the time, yet one step per 10ms passed
+        assertTrue(nar.time() >= 10);
+        assertTrue(nar.memory.getCycleCount() >= 10);
+    }
+}
@@ -0,0 +1,106 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2018 The OpenNARS authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.opennars.core;
+
+import org.junit.Test;
+import org.opennars.control.DerivationContext;
+import org.opennars.entity.Task;
+import org.opennars.io.events.Events;
+import org.opennars.io.Narsese;
+import org.opennars.main.Nar;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Novel tasks added from several threads, or in batches, all reach the novel task bag
+ */
+public class NovelTaskPipelineTest {
+
+    @Test
+    public void testConcurrentAddNewTask() throws Exception {
+        final Nar nar = new Nar();
+        final int threads = 4;
+        final int tasksPerThread = 20;
+        final List<List<Task>> tasks = new ArrayList<>();
+        final Narsese narsese = new Narsese(nar);
+        for (int i = 0; i < threads; i++) {
+            final List<Task> own = new ArrayList<>();
+            for (int j = 0; j < tasksPerThread; j++) {
+                own.add(narsese.parseTask("<t" + i + " --> x" + j + ">."));
+            }
+            tasks.add(own);
+        }
+
+        final List<Thread> producers = new ArrayList<>();
+        for (final List<Task> own : tasks) {
+            final Thread producer = new Thread(() -> {
+                for (final Task t : own) {
+                    nar.memory.addNewTask(t, "Test");
+                }
+            });
+            producers.add(producer);
+            producer.start();
+        }
+        for (final Thread producer : producers) {
+            producer.join();
+        }
+
+        int processed = 0;
+        while (nar.memory.novelTasks.size() > 0 || processed == 0) {
+            nar.memory.processNovelTask(nar.narParameters, nar);
+            processed++;
+        }
+        assertEquals(threads * tasksPerThread, processed);
+    }
+
+    @Test
+    public void testBufferedTasksFlushedInOneBatch() throws Exception {
+        final Nar nar = new Nar();
+        final Narsese narsese = new Narsese(nar);
+        final List<Object> added = new ArrayList<>();
+        nar.memory.event.on(Events.TaskAdd.class, (event, args) -> added.add(args[0]));
+
+        final DerivationContext nal = new DerivationContext(nar.memory, nar.narParameters, nar);
+        assertTrue(nal.bufferTasks());
+        assertFalse(nal.bufferTasks());
+        final Task first = narsese.parseTask("<a --> b>.");
+        final Task second = narsese.parseTask("<b --> c>.");
+        nal.addTask(first, "Test");
+        nal.addTask(second, "Test");
+        assertTrue(added.isEmpty());
+
+        nal.flushTasks();
+        assertEquals(2, added.size());
+        assertSame(first, added.get(0));
+        assertSame(second, added.get(1));
+        nal.addTask(narsese.parseTask("<c --> d>."), "Test");
+        assertEquals(3, added.size());
+    }
+}
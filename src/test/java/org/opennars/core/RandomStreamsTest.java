@@ -0,0 +1,71 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2018 The OpenNARS authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.opennars.core;
+
+import org.junit.Test;
+import org.opennars.control.DerivationContext;
+import org.opennars.main.Nar;
+import org.opennars.storage.Memory;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Inference workers draw from random streams of their own, which repeat after a reset
+ */
+public class RandomStreamsTest {
+
+    /** each worker thread draws one number from its stream */
+    private static long[] drawInWorkers(final Memory memory, final int workers) throws InterruptedException {
+        final long[] drawn = new long[workers];
+        final Thread[] threads = new Thread[workers];
+        for (int i = 0; i < workers; i++) {
+            final int worker = i;
+            threads[i] = new Thread(() -> {
+                memory.bindRandom(worker);
+                drawn[worker] = new DerivationContext(memory, memory.narParameters, null).random.nextLong();
+            });
+            threads[i].start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        return drawn;
+    }
+
+    @Test
+    public void testStreamsPerWorker() throws Exception {
+        final Nar nar = new Nar();
+        assertSame(nar.memory.randomNumber, nar.memory.getRandom());
+
+        final long[] first = drawInWorkers(nar.memory, 3);
+        assertNotEquals(first[0], first[1]);
+        assertNotEquals(first[1], first[2]);
+
+        nar.reset();
+        assertArrayEquals(first, drawInWorkers(nar.memory, 3));
+        assertArrayEquals(first, drawInWorkers(new Nar().memory, 3));
+    }
+}
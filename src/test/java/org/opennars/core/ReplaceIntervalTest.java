@@ -35,6 +35,10 @@ import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.text.ParseException;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
 /**
  * Tests for interval handling integrity
  *
@@ -50,4 +54,22 @@ public class ReplaceIntervalTest {
         CompoundTerm ct = (CompoundTerm) CompoundTerm.replaceIntervals(ret);
         assert(ct.toString().equals("<(*,{SELF},<{(*,fragmentC,fragmentD)} --> compare>,TRUE) =\\> (*,{SELF},(&/,<{fragmentC} --> mutate>,+1),TRUE)>"));
     }
+
+    @Test
+    public void replacedFormIsMemoized() throws Exception {
+        Nar nar = new Nar();
+        Narsese parser = new Narsese(nar);
+        Term withInterval = parser.parseTerm("(&/,<a --> b>,+12,<c --> d>)");
+        Term replaced = CompoundTerm.replaceIntervals(withInterval);
+        assertEquals("(&/,<a --> b>,+1,<c --> d>)", replaced.toString());
+        assertSame(replaced, CompoundTerm.replaceIntervals(withInterval));
+        assertSame(replaced, CompoundTerm.replaceIntervals(replaced));
+        assertEquals("(&/,<a --> b>,+12,<c --> d>)", withInterval.toString());
+
+        Term constant = parser.parseTerm("<a --> b>");
+        assertSame(constant, CompoundTerm.replaceIntervals(constant));
+        Term variable = parser.parseTerm("<$1 --> b>");
+        assertNotSame(variable, CompoundTerm.replaceIntervals(variable));
+        assertEquals(variable, CompoundTerm.replaceIntervals(variable));
+    }
 }
@@ -0,0 +1,88 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2018 The OpenNARS authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.opennars.core;
+
+import org.junit.Test;
+import org.opennars.entity.BudgetValue;
+import org.opennars.entity.Concept;
+import org.opennars.entity.TermLink;
+import org.opennars.io.Narsese;
+import org.opennars.language.CompoundTerm;
+import org.opennars.language.Term;
+import org.opennars.main.Nar;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * Concepts created again for a term share the TermLink templates prepared for the first one
+ */
+public class TermLinkTemplateCacheTest {
+
+    @Test
+    public void testTemplatesSharedAcrossConcepts() throws Exception {
+        final Nar nar = new Nar();
+        final Term term = new Narsese(nar).parseTerm("<(*,a,b) --> c>");
+        final BudgetValue budget = new BudgetValue(0.5f, 0.5f, 0.5f, nar.narParameters);
+
+        final Concept first = nar.memory.conceptualize(budget, term);
+        final List<TermLink> templates = first.getTermLinkTemplates();
+        nar.memory.concepts.pickOut(term);
+        nar.memory.conceptRemoved(first);
+
+        final Concept second = nar.memory.conceptualize(budget, term);
+        assertNotSame(first, second);
+        assertSame(templates, second.getTermLinkTemplates());
+    }
+
+    @Test
+    public void testTemplatesUnmodifiable() throws Exception {
+        final Nar nar = new Nar();
+        final Concept concept = nar.memory.conceptualize(new BudgetValue(0.5f, 0.5f, 0.5f, nar.narParameters), new Narsese(nar).parseTerm("<a --> b>"));
+        try {
+            concept.getTermLinkTemplates().clear();
+            fail("templates are shared between concepts");
+        } catch (final UnsupportedOperationException e) {
+            //expected
+        }
+    }
+
+    @Test
+    public void testCacheDisabled() throws Exception {
+        final Map<String, Object> overrides = new HashMap<>();
+        overrides.put("TERM_LINK_TEMPLATE_CACHE_SIZE", 0);
+        final Nar nar = new Nar(overrides);
+        final Term term = new Narsese(nar).parseTerm("<a --> b>");
+        final List<TermLink> templates = nar.memory.conceptualize(new BudgetValue(0.5f, 0.5f, 0.5f, nar.narParameters), term).getTermLinkTemplates();
+        final List<TermLink> again = nar.memory.getTermLinkTemplates((CompoundTerm) term);
+        assertNotSame(templates, again);
+        assertEquals(templates.size(), again.size());
+    }
+}
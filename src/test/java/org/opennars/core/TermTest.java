@@ -25,11 +25,15 @@ package org.opennars.core;
 
 import org.junit.Test;
 import org.opennars.entity.Concept;
+import org.opennars.inference.TemporalRules;
 import org.opennars.io.Narsese;
 import org.opennars.io.Symbols.NativeOperator;
 import org.opennars.io.Texts;
 import org.opennars.language.CompoundTerm;
+import org.opennars.language.Conjunction;
 import org.opennars.language.Inheritance;
+import org.opennars.language.IntersectionExt;
+import org.opennars.language.SetExt;
 import org.opennars.language.Statement;
 import org.opennars.language.Term;
 import org.opennars.main.Nar;
@@ -39,12 +43,19 @@ import org.xml.sax.SAXException;
 
 import javax.xml.parsers.ParserConfigurationException;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.lang.reflect.InvocationTargetException;
 import java.text.ParseException;
+import java.util.Arrays;
+import java.util.Map;
 import java.util.NavigableSet;
 import java.util.TreeSet;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -255,4 +266,115 @@ public class TermTest {
         assertEquals(Operation.class, x.getClass());
         assertEquals("(^wonder,a,b)", x.toString());
     }
+
+    @Test public void testInternSharesEqualTerms() throws Exception {
+        final CompoundTerm a = (CompoundTerm) Term.intern(np.parseTerm("<(&,x,y) --> z>"));
+        final CompoundTerm b = (CompoundTerm) Term.intern(np.parseTerm("<(&,x,y) --> z>"));
+        assertSame(a, b);
+        final CompoundTerm c = (CompoundTerm) Term.intern(np.parseTerm("<(&,x,y) --> w>"));
+        assertSame(a.term[0], c.term[0]);
+        assertSame(Term.get("z"), a.term[1]);
+
+        //scoped variables and operators are not shared
+        final Term v = np.parseTerm("<$1 --> z>");
+        assertSame(v, Term.intern(v));
+        assertNotSame(v, Term.intern(np.parseTerm("<$1 --> z>")));
+        final Term op = np.parseTerm("wonder(a,b)");
+        assertSame(op, Term.intern(op));
+    }
+
+    @Test public void testConcurrentAtoms() throws Exception {
+        final Term[] got = new Term[4];
+        final Thread[] threads = new Thread[got.length];
+        for (int i = 0; i < threads.length; i++) {
+            final int k = i;
+            threads[i] = new Thread(() -> got[k] = Term.get("concurrentAtom"));
+            threads[i].start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        for (final Term t : got) {
+            assertSame(got[0], t);
+        }
+    }
+
+    @Test public void testStructuralEqualityFollowsNames() throws Exception {
+        final String[] terms = {
+            "<a --> b>", "<a <-> b>", "<b --> a>", "(/,r,_,b)", "(/,r,b,_)", "(\\,r,_,b)",
+            "(&/,a,+3,b)", "(&/,a,+4,b)", "(&|,a,b)", "(&&,a,b)", "<a =/> b>", "<a ==> b>",
+            "<(*,a,b) --> r>", "{a,b}", "[a,b]", "<$1 --> b>", "<#1 --> b>", "(--,<a --> b>)"
+        };
+        for (final String x : terms) {
+            for (final String y : terms) {
+                final Term a = np.parseTerm(x);
+                final Term b = np.parseTerm(y);
+                final boolean sameName = a.name().toString().equals(b.name().toString());
+                assertEquals(x + " " + y, sameName, a.equals(b));
+                if (sameName) {
+                    assertEquals(a.structuralHash(), b.structuralHash());
+                    assertEquals(a.hashCode(), b.hashCode());
+                }
+            }
+        }
+    }
+
+    /** builds commutative compounds of three to five atoms, as the inference rules do for candidate conclusions */
+    private static int constructCommutative(final Term[] atoms, final int count) {
+        int complexity = 0;
+        for (int i = 0; i < count; i++) {
+            final int n = 3 + i % 3;
+            final Term[] args = new Term[n];
+            for (int j = 0; j < n; j++) {
+                args[j] = atoms[(i * 7 + j * 3) % atoms.length];
+            }
+            complexity += SetExt.make(args).getComplexity();
+            complexity += IntersectionExt.make(Arrays.copyOf(args, n)).getComplexity();
+            complexity += Conjunction.make(Arrays.copyOf(args, n), TemporalRules.ORDER_CONCURRENT).getComplexity();
+        }
+        return complexity;
+    }
+
+    @Test public void benchmarkTermConstructionAllocations() {
+        final Term[] atoms = new Term[16];
+        for (int i = 0; i < atoms.length; i++) {
+            atoms[i] = Term.get("atom" + i);
+        }
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        final boolean measurable = threads instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported();
+        final int count = 20000;
+        constructCommutative(atoms, count); //warm up
+
+        final long thread = Thread.currentThread().getId();
+        final long bytesBefore = measurable ? ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(thread) : 0;
+        final long start = System.nanoTime();
+        final int complexity = constructCommutative(atoms, count);
+        final long nanos = System.nanoTime() - start;
+        final long bytes = measurable ? ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(thread) - bytesBefore : -1;
+
+        final int terms = 3 * count;
+        System.out.println("term construction: " + (nanos / terms) + " ns, "
+                + (measurable ? (bytes / terms) + " bytes" : "unknown allocation") + " per term");
+        assertTrue(complexity > terms);
+    }
+
+    @Test public void testContainmentSummaries() throws Exception {
+        final CompoundTerm t = (CompoundTerm) np.parseTerm("<(&&,<a --> b>,<$1 --> b>) ==> <(*,a,c) --> d>>");
+        assertEquals(0, np.parseTerm("<a --> b>").atomSignature() & ~t.atomSignature());
+        assertTrue(t.containsTermRecursively(np.parseTerm("<a --> b>")));
+        assertTrue(t.containsTermRecursively(np.parseTerm("(*,a,c)")));
+        assertTrue(t.containsTermRecursively(Term.get("d")));
+        assertFalse(t.containsTermRecursively(np.parseTerm("<c --> b>")));
+        assertFalse(t.containsTermRecursively(Term.get("e")));
+
+        final Map<Term, Integer> counts = t.countTermRecursively(null);
+        assertSame(counts, t.countTermRecursively(null));
+        assertEquals(Integer.valueOf(2), counts.get(Term.get("a")));
+        assertEquals(Integer.valueOf(2), counts.get(Term.get("b")));
+        assertEquals(Integer.valueOf(1), counts.get(np.parseTerm("(*,a,c)")));
+        assertEquals(t, counts.keySet().iterator().next());
+        //counting into a given map still walks the term
+        assertEquals(counts, t.countTermRecursively(new java.util.LinkedHashMap<>()));
+    }
 }
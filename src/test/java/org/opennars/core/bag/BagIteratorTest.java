@@ -26,6 +26,12 @@ package org.opennars.core.bag;
 import org.junit.Test;
 import org.opennars.perf.BagPerf.NullItem;
 import org.opennars.storage.Bag;
+import org.opennars.storage.BagFactory;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import org.opennars.main.Nar;
 
@@ -37,21 +43,17 @@ public class BagIteratorTest {
 
     public void testIterator(final Bag<NullItem,CharSequence> b) {
         int count = 0;
-        NullItem first = null, current = null;
+        final Set<CharSequence> seen = new HashSet<>();
         for (final NullItem n : b) {
-            if (first == null)
-                first = n;
-            current = n;
-            //System.out.println(current);
+            //System.out.println(n);
+            assertTrue(b.get(n.name()) == n);
+            seen.add(n.name());
             count++;
         }               
         
-        if (b.size() > 1) {
-            //check correct order
-            assertTrue(first.getPriority() > current.getPriority());
-        }
-        
-        assertTrue(count==b.size());
+        //every item exactly once, the order is not specified by Bag
+        assertEquals(b.size(), count);
+        assertEquals(b.size(), seen.size());
     }
     
     public int numEmptyLevels(Bag bag) {
@@ -92,9 +94,10 @@ public class BagIteratorTest {
     
     @Test
     public void testBags() throws Exception {
-        //Nar nar = new Nar();
-        //testBagIterator(new Bag(L, L*2, nar.narParameters));
-        assert(true);
+        final Nar nar = new Nar();
+        for (final String type : BagOperationsTest.BAG_TYPES) {
+            testBagIterator(BagFactory.create(type, L, L*2, nar.narParameters));
+        }
     }
     
 }
@@ -30,12 +30,18 @@ import org.opennars.entity.Item;
 import org.opennars.language.Term;
 import org.opennars.main.Nar;
 import org.opennars.storage.Bag;
+import org.opennars.storage.BagFactory;
+import org.opennars.storage.ConcurrentLevelBag;
+import org.opennars.storage.FenwickBag;
+import org.opennars.storage.LevelBag;
+import org.opennars.storage.LinkedLevelBag;
 import org.xml.sax.SAXException;
 
 import javax.xml.parsers.ParserConfigurationException;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.text.ParseException;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -47,6 +53,14 @@ import org.opennars.main.Parameters;
  */
 public class BagOperationsTest {
 
+    /** every Bag implementation, the bag tests run against each */
+    public static final String[] BAG_TYPES = {
+        LevelBag.class.getName(),
+        LinkedLevelBag.class.getName(),
+        FenwickBag.class.getName(),
+        ConcurrentLevelBag.class.getName()
+    };
+
     private static Parameters narParameters;
     static Nar nar;
 
@@ -84,7 +98,65 @@ public class BagOperationsTest {
     public void testConcept() throws Exception {
         Nar nar = new Nar();
         this.narParameters = nar.narParameters;
-        testBagSequence(new Bag(2, 2, nar.narParameters));    
+        for (final String type : BAG_TYPES) {
+            testBagSequence(BagFactory.create(type, 2, 2, nar.narParameters));
+        }
+    }
+
+    @Test
+    public void testSnapshotAndTopK() throws Exception {
+        Nar nar = new Nar();
+        this.narParameters = nar.narParameters;
+        for (final String type : BAG_TYPES) {
+            final Bag<Concept,Term> b = BagFactory.create(type, 10, 20, nar.narParameters);
+            for (int i = 0; i < 10; i++) {
+                b.putIn(makeConcept("c" + i, 0.05f + 0.09f * i));
+            }
+            final List<Concept> snapshot = b.snapshot();
+            assertEquals(type, 10, snapshot.size());
+            b.putIn(makeConcept("d", 0.5f));
+            assertEquals(type, 10, snapshot.size());    //not affected by later changes
+
+            final List<Concept> top = b.topK(3);
+            assertEquals(type, 3, top.size());
+            assertEquals(type, "c9", top.get(0).getTerm().toString());
+            assertEquals(type, "c8", top.get(1).getTerm().toString());
+            assertEquals(type, "c7", top.get(2).getTerm().toString());
+            assertEquals(type, 11, b.size());           //nothing taken out
+            assertEquals(type, 11, b.topK(100).size());
+            assertEquals(type, 0, b.topK(0).size());
+        }
+    }
+
+    @Test
+    public void testSetCapacity() throws Exception {
+        Nar nar = new Nar();
+        this.narParameters = nar.narParameters;
+        for (final String type : BAG_TYPES) {
+            final Bag<Concept,Term> b = BagFactory.create(type, 100, 20, nar.narParameters);
+            for (int i = 0; i < 20; i++) {
+                b.putIn(makeConcept("c" + i, 0.02f + 0.045f * i));
+            }
+            final List<Concept> evicted = b.setCapacity(5);
+            assertEquals(type, 15, evicted.size());
+            assertEquals(type, 5, b.size());
+            assertEquals(type, 5, b.getCapacity());
+            for (final Concept c : evicted) {
+                assertEquals(type, null, b.get(c.getTerm()));
+            }
+            assertEquals(type, 0.02f + 0.045f * 15, getMinPriority(b), 0.001f);   //the highest five are kept
+
+            assertEquals(type, 0, b.setCapacity(30).size());
+            for (int i = 0; i < 40; i++) {
+                b.putIn(makeConcept("d" + i, 0.5f));
+            }
+            assertEquals(type, 30, b.size());
+            int taken = 0;
+            while (b.takeOut() != null) {
+                taken++;
+            }
+            assertEquals(type, 30, taken);
+        }
     }
 
     public static float getMinPriority(Bag<Concept,Term> bag) {
@@ -147,7 +219,7 @@ public class BagOperationsTest {
         assertEquals(null, b.putIn(makeConcept("a", 0.2f)));
         assertEquals(null, b.putIn(makeConcept("b", 0.3f)));
         
-        if (b instanceof Bag) {
+        if (b instanceof LevelBag || b instanceof LinkedLevelBag) {
             assertEquals("a", b.putIn(makeConcept("c", 0.1f)).name().toString()); //replaces item on level
         }
         
@@ -0,0 +1,117 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2018 The OpenNARS authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.opennars.core.bag;
+
+import org.junit.Test;
+import org.opennars.core.bag.LinkedLevelBagTest.KeyedItem;
+import org.opennars.main.Parameters;
+import org.opennars.storage.ConcurrentLevelBag;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Takes out and puts back items of the concurrent bag from several threads at once
+ */
+public class ConcurrentLevelBagTest {
+
+    @Test
+    public void testNoItemLost() throws Exception {
+        final int items = 2000;
+        final ConcurrentLevelBag<KeyedItem,CharSequence> bag = new ConcurrentLevelBag<>(100, 10000, new Parameters());
+        for (int i = 0; i < items; i++) {
+            bag.putIn(new KeyedItem("k" + i, (i % 100) / 100.0f));
+        }
+        assertEquals(items, bag.size());
+
+        final Thread[] threads = new Thread[8];
+        final Throwable[] failure = new Throwable[1];
+        for (int t = 0; t < threads.length; t++) {
+            final Random rnd = new Random(t);
+            threads[t] = new Thread(() -> {
+                try {
+                    for (int i = 0; i < 20000; i++) {
+                        final KeyedItem x = rnd.nextBoolean() ? bag.takeOut() : bag.pickOut("k" + rnd.nextInt(items));
+                        if (x != null) {
+                            assertTrue(bag.get(x.name()) == null);
+                            assertEquals(null, bag.putIn(x));
+                        }
+                    }
+                } catch (final Throwable e) {
+                    failure[0] = e;
+                }
+            });
+            threads[t].start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(null, failure[0]);
+
+        assertEquals(items, bag.size());
+        final Set<CharSequence> seen = new HashSet<>();
+        for (final KeyedItem x : bag) {
+            assertTrue(bag.get(x.name()) == x);
+            seen.add(x.name());
+        }
+        assertEquals(items, seen.size());
+        for (int i = 0; i < items; i++) {
+            assertTrue(bag.takeOut() != null);
+        }
+        assertEquals(null, bag.takeOut());
+    }
+
+    @Test
+    public void testHotStripeChosenMoreOften() {
+        final ConcurrentLevelBag<KeyedItem,CharSequence> bag = new ConcurrentLevelBag<>(100, 10000, new Parameters());
+        //the hot items all in the stripe of k0, the cold ones in the other stripes
+        final Object hotStripe = bag.lockOf("k0");
+        int hot = 0;
+        int cold = 0;
+        for (int i = 0; hot < 50 || cold < 750; i++) {
+            final String key = "k" + i;
+            if (bag.lockOf(key) == hotStripe) {
+                if (hot++ < 50) {
+                    bag.putIn(new KeyedItem(key, 0.95f));
+                }
+            } else if (cold++ < 750) {
+                bag.putIn(new KeyedItem(key, 0.01f));
+            }
+        }
+        int hotSelections = 0;
+        for (int i = 0; i < 1000; i++) {
+            final KeyedItem x = bag.takeOut();
+            if (x.getPriority() > 0.5f) {
+                hotSelections++;
+            }
+            bag.putIn(x);
+        }
+        //mass 50 * 96 against 750 * 2, visiting the stripes in turn would choose the hot one once in 16 times
+        assertTrue(hotSelections > 700);
+    }
+}
@@ -24,11 +24,21 @@
 package org.opennars.core.bag;
 
 import org.junit.Test;
+import org.opennars.core.bag.LinkedLevelBagTest.KeyedItem;
+import org.opennars.storage.Bag;
 import org.opennars.storage.Distributor;
+import org.opennars.storage.FenwickBag;
+import org.opennars.storage.LevelBag;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.junit.Assert.assertTrue;
+
 /**
  * Report the distribution of the bag
  */
@@ -41,10 +51,12 @@ public class DistributorAnalyzer {
         final int[] count = new int[levels];
         
         double total = 0;
-        for (final int x : d.order) {
-            count[x]++;
+        int index = 0;
+        do {
+            count[d.pick(index)]++;
             total++;
-        }
+            index = d.next(index);
+        } while (index != 0);
         
         final List<Double> probability = new ArrayList(levels);
         for (int i = 0; i < levels; i++) {
@@ -67,5 +79,62 @@ public class DistributorAnalyzer {
         
     }
 
-    
+    @Test public void testSharedPerRange() throws Exception {
+        final Distributor d = Distributor.get(100);
+        assertTrue(d == Distributor.get(100));
+        assertTrue(d != Distributor.get(10));
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(d);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertTrue(d == in.readObject());
+        }
+    }
+
+    /**
+     * Take an item out and put it back many times, and return the total variation
+     * distance between the selection frequencies and the priority-proportional distribution
+     */
+    public static double selectionError(final Bag<KeyedItem,CharSequence> bag, final float[] priorities, final int selections) {
+        double sum = 0;
+        for (int i = 0; i < priorities.length; i++) {
+            bag.putIn(new KeyedItem("k" + i, priorities[i]));
+            sum += priorities[i];
+        }
+        final int[] count = new int[priorities.length];
+        for (int i = 0; i < selections; i++) {
+            final KeyedItem x = bag.takeOut();
+            count[Integer.parseInt(x.name().toString().substring(1))]++;
+            bag.putIn(x);
+        }
+        double distance = 0;
+        for (int i = 0; i < priorities.length; i++) {
+            distance += Math.abs(count[i] / (double) selections - priorities[i] / sum);
+        }
+        return distance / 2;
+    }
+
+    @Test public void testSelectionFidelity() {
+        final float[] spread = new float[20];
+        for (int i = 0; i < spread.length; i++) {
+            spread[i] = (i + 1) / 21.0f;
+        }
+        final float[] crowded = new float[9];       //all in the lowest of 10 levels
+        for (int i = 0; i < crowded.length; i++) {
+            crowded[i] = (i + 1) / 1000.0f;
+        }
+
+        final double levelSpread = selectionError(new LevelBag<>(100, 100, 100), spread, 100000);
+        final double fenwickSpread = selectionError(new FenwickBag<>(100, 100, null), spread, 100000);
+        final double levelCrowded = selectionError(new LevelBag<>(10, 100, 10), crowded, 100000);
+        final double fenwickCrowded = selectionError(new FenwickBag<>(10, 100, null), crowded, 100000);
+        System.out.println("selection error, spread priorities:  LevelBag " + levelSpread + "\tFenwickBag " + fenwickSpread);
+        System.out.println("selection error, crowded priorities: LevelBag " + levelCrowded + "\tFenwickBag " + fenwickCrowded);
+
+        assertTrue(fenwickSpread < 0.01);
+        assertTrue(fenwickCrowded < 0.01);
+        assertTrue(fenwickCrowded < levelCrowded);
+    }
 }
@@ -0,0 +1,126 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2018 The OpenNARS authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.opennars.core.bag;
+
+import org.junit.Test;
+import org.opennars.core.bag.LinkedLevelBagTest.KeyedItem;
+import org.opennars.main.Nar;
+import org.opennars.storage.FenwickBag;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the Fenwick bag against a plain map of its expected content
+ */
+public class FenwickBagTest {
+
+    @Test
+    public void testAgainstModel() {
+        final int capacity = 50;
+        final FenwickBag<KeyedItem,CharSequence> bag = new FenwickBag<>(0, capacity, null);
+        final Map<String,Float> model = new HashMap<>();
+        final Random rnd = new Random(1);
+
+        for (int i = 0; i < 20000; i++) {
+            final int op = rnd.nextInt(10);
+            if (op < 6) {
+                final String key = "k" + rnd.nextInt(200);
+                final float priority = rnd.nextFloat();
+                final KeyedItem removed = bag.putIn(new KeyedItem(key, priority));
+                if (model.containsKey(key)) {
+                    assertEquals(null, removed);
+                    model.put(key, Math.max(model.get(key), priority));   //merged
+                } else if (model.size() == capacity) {
+                    float min = 1.0f;
+                    for (final float p : model.values()) {
+                        min = Math.min(min, p);
+                    }
+                    assertTrue(removed != null);
+                    if (removed.name().equals(key)) {
+                        assertTrue(priority < min);     //rejected
+                    } else {
+                        assertEquals(min, removed.getPriority(), 0.0f);
+                        model.remove(removed.name().toString());
+                        model.put(key, priority);
+                    }
+                } else {
+                    assertEquals(null, removed);
+                    model.put(key, priority);
+                }
+            } else if (op < 9) {
+                final KeyedItem taken = bag.takeOut();
+                if (model.isEmpty()) {
+                    assertEquals(null, taken);
+                } else {
+                    assertTrue(model.remove(taken.name().toString()) != null);
+                }
+            } else {
+                final String key = "k" + rnd.nextInt(200);
+                final KeyedItem picked = bag.pickOut(key);
+                assertEquals(model.remove(key) != null, picked != null);
+            }
+
+            assertEquals(model.size(), bag.size());
+            double sum = 0;
+            for (final float p : model.values()) {
+                sum += p;
+            }
+            if (!model.isEmpty()) {
+                assertEquals(sum / model.size(), bag.getAveragePriority(), 0.0001);
+            }
+        }
+        int count = 0;
+        for (final KeyedItem item : bag) {
+            assertEquals(model.get(item.name().toString()), item.getPriority(), 0.0f);
+            count++;
+        }
+        assertEquals(model.size(), count);
+    }
+
+    @Test
+    public void testUpdateInPlace() throws Exception {
+        final Nar nar = new Nar();
+        final FenwickBag<KeyedItem,CharSequence> bag = new FenwickBag<>(0, 3, nar.narParameters);
+        final KeyedItem a = new KeyedItem("a", 0.2f);
+        bag.putIn(a);
+        bag.putIn(new KeyedItem("b", 0.5f));
+        bag.putIn(new KeyedItem("c", 0.6f));
+
+        a.budget.setPriority(0.9f);
+        assertTrue(bag.update(a, 1000, nar.memory) == a);
+        assertEquals(3, bag.size());
+        assertTrue(a.getPriority() > 0.8f);
+
+        //a is no longer the lowest, so the new item is rejected
+        final KeyedItem d = new KeyedItem("d", 0.3f);
+        assertTrue(bag.putIn(d) == d);
+        assertTrue(bag.update(d, 1000, nar.memory) == null);
+        assertEquals("b", bag.putIn(new KeyedItem("e", 0.55f)).name());
+    }
+}
@@ -0,0 +1,84 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2018 The OpenNARS authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.opennars.core.bag;
+
+import org.junit.Test;
+import org.opennars.entity.Concept;
+import org.opennars.main.Nar;
+import org.opennars.plugin.memory.HeapBudgetController;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that the heap budget controller steps the bag capacities down and back up
+ */
+public class HeapBudgetControllerTest {
+
+    @Test
+    public void testShrinkAndGrow() throws Exception {
+        final Nar nar = new Nar();
+        final int concepts = nar.memory.concepts.getCapacity();
+        final int taskLinks = nar.narParameters.TASK_LINK_BAG_SIZE;
+        final HeapBudgetController controller = new HeapBudgetController(100, 10);
+        nar.addPlugin(controller);
+        nar.addInput("<a --> b>.");
+        nar.addInput("<b --> c>.");
+        nar.cycles(10);
+        final long mb = 1024 * 1024;
+
+        controller.check(nar.memory, 95 * mb);              //above the high water mark
+        assertEquals(0.8f, controller.getScale(), 0.0001f);
+        assertEquals(Math.round(concepts * 0.8f), nar.memory.concepts.getCapacity());
+        assertEquals(Math.round(taskLinks * 0.8f), nar.narParameters.TASK_LINK_BAG_SIZE);
+        for (int i = 0; i < 20; i++) {
+            controller.check(nar.memory, 95 * mb);
+        }
+        assertEquals(controller.MIN_FRACTION, controller.getScale(), 0.0001f);
+        nar.memory.concepts.forEach(c -> assertEquals(Math.round(taskLinks * controller.MIN_FRACTION), c.getTaskLinks().getCapacity()));
+
+        controller.check(nar.memory, 70 * mb);              //between the marks, nothing changes
+        assertEquals(controller.MIN_FRACTION, controller.getScale(), 0.0001f);
+        for (int i = 0; i < 20; i++) {
+            controller.check(nar.memory, 10 * mb);
+        }
+        assertEquals(1.0f, controller.getScale(), 0.0001f);
+        assertEquals(concepts, nar.memory.concepts.getCapacity());
+        assertEquals(taskLinks, nar.narParameters.TASK_LINK_BAG_SIZE);
+        nar.cycles(10);
+    }
+
+    @Test
+    public void testConceptOutOfBagResized() throws Exception {
+        final Nar nar = new Nar();
+        final int taskLinks = nar.narParameters.TASK_LINK_BAG_SIZE;
+        nar.addInput("<a --> b>.");
+        nar.cycles(5);
+
+        //a concept being fired is out of the bag when the capacities change
+        final Concept fired = nar.memory.takeOutConcept();
+        nar.memory.setLinkCapacities(taskLinks / 2, nar.narParameters.TERM_LINK_BAG_SIZE / 2);
+        nar.memory.putBackConcept(fired, nar.narParameters.CONCEPT_FORGET_DURATIONS);
+        assertEquals(taskLinks / 2, fired.getTaskLinks().getCapacity());
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 The OpenNARS authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.opennars.core.bag;
+
+import org.junit.Test;
+import org.opennars.entity.BudgetValue;
+import org.opennars.entity.Item;
+import org.opennars.storage.LevelBag;
+import org.opennars.storage.LinkedLevelBag;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that the linked level bag selects and evicts exactly like the array-backed bag
+ */
+public class LinkedLevelBagTest {
+
+    static class KeyedItem extends Item.StringKeyItem {
+        final String key;
+
+        KeyedItem(final String key, final float priority) {
+            super(new BudgetValue(priority, 0.5f, 0.5f, null));
+            this.key = key;
+        }
+
+        @Override
+        public CharSequence name() {
+            return key;
+        }
+    }
+
+    private static String nameOf(final Item item) {
+        return item == null ? null : item.name().toString();
+    }
+
+    public void testSameSequence(final int levels, final int capacity, final int keys) {
+        final LevelBag<KeyedItem,CharSequence> expected = new LevelBag<>(levels, capacity, levels);
+        final LinkedLevelBag<KeyedItem,CharSequence> actual = new LinkedLevelBag<>(levels, capacity, levels);
+        final Random rnd = new Random(levels * 31 + capacity);
+
+        for (int i = 0; i < 20000; i++) {
+            final int op = rnd.nextInt(10);
+            if (op < 6) {
+                final String key = "k" + rnd.nextInt(keys);
+                final float priority = rnd.nextFloat() * 0.99f;
+                assertEquals(nameOf(expected.putIn(new KeyedItem(key, priority))),
+                             nameOf(actual.putIn(new KeyedItem(key, priority))));
+            } else if (op < 9) {
+                assertEquals(nameOf(expected.takeOut()), nameOf(actual.takeOut()));
+            } else {
+                final String key = "k" + rnd.nextInt(keys);
+                assertEquals(nameOf(expected.pickOut(key)), nameOf(actual.pickOut(key)));
+            }
+            assertEquals(expected.size(), actual.size());
+            assertEquals(expected.getAveragePriority(), actual.getAveragePriority(), 0.0f);
+        }
+    }
+
+    @Test
+    public void testSmallBag() {
+        testSameSequence(10, 20, 50);
+    }
+
+    @Test
+    public void testLargeBag() {
+        testSameSequence(100, 500, 2000);
+    }
+}
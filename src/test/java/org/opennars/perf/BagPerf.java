@@ -30,6 +30,8 @@ import org.opennars.entity.BudgetValue;
 import org.opennars.entity.Item;
 import org.opennars.main.Nar;
 import org.opennars.storage.Bag;
+import org.opennars.storage.LevelBag;
+import org.opennars.storage.LinkedLevelBag;
 import org.opennars.storage.Memory;
 import org.opennars.main.Parameters;
 
@@ -143,7 +145,7 @@ public class BagPerf {
                 } catch (ParseException ex) {
                     Logger.getLogger(BagPerf.class.getName()).log(Level.SEVERE, null, ex);
                 }
-                final Bag<NullItem,CharSequence> b = new Bag(levels, capacity, nar.narParameters) {
+                final Bag<NullItem,CharSequence> b = new LevelBag(levels, capacity, nar.narParameters) {
 
 //                    @Override
 //                    protected ArrayDeque<NullItem> newLevel() {
@@ -288,8 +290,73 @@ public class BagPerf {
         out.println(line.toString());
     }
     
+    /** Bag type driven by {@link #levelOccupancy} */
+    public interface OccupancyBag {
+        NullItem putIn(NullItem item);
+        NullItem takeOut();
+    }
+
+    /**
+     * Take-out/put-back and insertion throughput of bags with many levels,
+     * for sparse bags where most levels are empty, and for full (dense) bags
+     * where every insertion evicts from the lowest occupied level.
+     */
+    public static void levelOccupancy(final PrintStream out, final int levels, final int repeats, final int warmups) {
+        final int capacity = 10000;
+        final int operations = 200000;
+        final int[] fills = { 30, 300, capacity };
+
+        printCSVLine(out, "bag", "levels", "items", "ms/run");
+        for (final int items : fills) {
+            for (int impl = 0; impl < 2; impl++) {
+                final boolean linked = impl == 1;
+                final String label = (linked ? "LinkedLevelBag" : "LevelBag");
+                final Performance p = new Performance(label, repeats, warmups) {
+
+                    @Override public void init() { }
+
+                    @Override
+                    public void run(final boolean warmup) {
+                        final Random r = new Random(1);
+                        final OccupancyBag b;
+                        if (linked) {
+                            final LinkedLevelBag<NullItem,CharSequence> bag = new LinkedLevelBag<>(levels, capacity, narParameters);
+                            b = new OccupancyBag() {
+                                @Override public NullItem putIn(final NullItem item) { return bag.putIn(item); }
+                                @Override public NullItem takeOut() { return bag.takeOut(); }
+                            };
+                        } else {
+                            final LevelBag<NullItem,CharSequence> bag = new LevelBag<>(levels, capacity, narParameters);
+                            b = new OccupancyBag() {
+                                @Override public NullItem putIn(final NullItem item) { return bag.putIn(item); }
+                                @Override public NullItem takeOut() { return bag.takeOut(); }
+                            };
+                        }
+                        //sparse bags hold low priority items, as a bag of mostly forgotten concepts does
+                        final float maxPriority = items < capacity ? 0.1f : 0.99f;
+                        for (int i = 0; i < items; i++) {
+                            b.putIn(new NullItem(r.nextFloat() * maxPriority));
+                        }
+                        for (int i = 0; i < operations; i++) {
+                            if (items < capacity) {
+                                b.putIn(b.takeOut());
+                            } else {
+                                b.putIn(new NullItem(r.nextFloat() * maxPriority));
+                            }
+                        }
+                    }
+                };
+                printCSVLine(out, label, levels + "", items + "", p.getCycleTimeMS() + "");
+            }
+        }
+    }
+
     public static void main(final String[] args) throws Exception {
         narParameters = new Nar().narParameters;
+        if (args.length > 0 && "levels".equals(args[0])) {
+            levelOccupancy(System.out, narParameters.CONCEPT_BAG_LEVELS, 10, 2);
+            return;
+        }
         final int itemsPerLevel = 10;
         final int repeats = 10;
         final int warmups = 1;
@@ -307,7 +374,7 @@ public class BagPerf {
                 final int randomAccesses = accessesPerItem * items;
 
                 final Bag[] bags = new Bag[1];
-                bags[0] = new Bag(levels, items, narParameters);
+                bags[0] = new LevelBag(levels, items, narParameters);
 
 
                 final Map<Bag, Double> t = BagPerf.compare(
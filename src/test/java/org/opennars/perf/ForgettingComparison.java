@@ -0,0 +1,99 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2018 The OpenNARS authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.opennars.perf;
+
+import org.opennars.core.NALTest;
+import org.opennars.main.Debug;
+import org.opennars.main.Nar;
+import org.opennars.util.test.OutputCondition;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Runs every NAL example with per-access and with time-based forgetting
+ * (LAZY_FORGETTING) and reports the examples whose outcome differs.
+ * <p>
+ * The two are different forgetting models, not two computations of the
+ * same one: per-access forgetting decays an item each time it is put back,
+ * time-based forgetting by the cycles passed. Differences are expected,
+ * the report shows which examples depend on the model.
+ */
+public class ForgettingComparison {
+
+    /**
+     * @param path Path of the NAL example
+     * @param lazy Whether to use LAZY_FORGETTING
+     * @param cycles Cycles to run
+     * @return Whether all expected outputs appeared
+     */
+    public static boolean passes(final String path, final boolean lazy, final int cycles) throws Exception {
+        final Nar n = new Nar();
+        n.narParameters.LAZY_FORGETTING = lazy;
+        final List<OutputCondition> expects = OutputCondition.getConditions(n, NALTest.getExample(path), NALTest.similarsToSave);
+        n.addInputFile(path);
+        n.cycles(cycles);
+        boolean success = expects.size() > 0;
+        for (final OutputCondition e : expects) {
+            if (!e.succeeded) {
+                success = false;
+            }
+        }
+        return success;
+    }
+
+    public static void main(final String[] args) throws Exception {
+        Debug.DETAILED = false;
+        Debug.TEST = true;
+        final int cycles = args.length > 0 ? Integer.parseInt(args[0]) : 1550;
+
+        final Collection c = NALTest.params();
+        final List<String> differing = new ArrayList<>();
+        int eager = 0, lazy = 0;
+        long eagerTime = 0, lazyTime = 0;
+        for (final Object o : c) {
+            final String path = (String)((Object[])o)[0];
+            long start = System.nanoTime();
+            final boolean e = passes(path, false, cycles);
+            eagerTime += System.nanoTime() - start;
+            start = System.nanoTime();
+            final boolean l = passes(path, true, cycles);
+            lazyTime += System.nanoTime() - start;
+
+            if (e) eager++;
+            if (l) lazy++;
+            if (e != l) {
+                differing.add(path + (e ? " fails" : " passes") + " with time-based forgetting");
+            }
+        }
+
+        System.out.println("per-access forgetting: " + eager + "/" + c.size() + " in " + eagerTime / 1000000 + "ms");
+        System.out.println("time-based forgetting: " + lazy + "/" + c.size() + " in " + lazyTime / 1000000 + "ms");
+        for (final String d : differing) {
+            System.out.println(d);
+        }
+        System.exit(0);
+    }
+}